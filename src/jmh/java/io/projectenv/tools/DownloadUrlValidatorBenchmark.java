@@ -0,0 +1,82 @@
+package io.projectenv.tools;
+
+import com.sun.net.httpserver.HttpServer;
+import io.projectenv.tools.http.ResilientHttpClient;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates the download URLs of index-v2.json against a local stub server which answers every HEAD request with 200.
+ * <p>
+ * The URLs are spread over loopback addresses like the real downloads are spread over several hosts, each with
+ * its own concurrency limit. Every run uses a fresh validator, so that the limits start from their initial values.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DownloadUrlValidatorBenchmark {
+
+    private static final int LOOPBACK_HOSTS = 10;
+
+    private HttpServer server;
+    private ToolsIndexV2 previousIndex;
+    private ToolsIndexV2 mergedIndex;
+    private ResilientHttpClient httpClient;
+    private DownloadUrlValidator validator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        ToolsIndexV2 toolsIndex = ToolIndexV2Parser.readFrom(new File("index-v2.json"));
+        List<ToolsIndexLeaf> leaves = new ArrayList<>();
+        for (ToolsIndexLeaf leaf : ToolsIndexLeaves.flatten(toolsIndex)) {
+            String host = "127.0.0." + (leaves.size() % LOOPBACK_HOSTS + 1);
+            String url = "http://" + host + ":" + server.getAddress().getPort() + URI.create(leaf.url()).getRawPath();
+            leaves.add(new ToolsIndexLeaf(leaf.key(), url));
+        }
+
+        mergedIndex = ToolsIndexLeaves.assemble(leaves, toolsIndex.getJdkDistributionSynonyms());
+        previousIndex = ToolsIndexLeaves.assemble(leaves.subList(0, leaves.size() / 2), toolsIndex.getJdkDistributionSynonyms());
+    }
+
+    @Setup(Level.Invocation)
+    public void createValidator() {
+        httpClient = ResilientHttpClient.create(new SystemStreamLog());
+        validator = new DownloadUrlValidator(httpClient, UrlValidationCache.disabled(), new SystemStreamLog());
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeValidator() {
+        httpClient.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public ToolsIndexV2 validateUrls() {
+        return validator.validateUrls(previousIndex, mergedIndex);
+    }
+
+}
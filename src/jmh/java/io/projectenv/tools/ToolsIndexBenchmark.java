@@ -0,0 +1,92 @@
+package io.projectenv.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading, writing, merging and converting the checked-in index-v2.json.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ToolsIndexBenchmark {
+
+    private static final File INDEX_FILE = new File("index-v2.json");
+
+    private ToolsIndexV2 toolsIndex;
+    private ToolsIndexV2 fetchedToolsIndex;
+    private Path outputDirectory;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Re-assembled to get the semver ordered maps the generator works with
+        ToolsIndexV2 parsedToolsIndex = ToolIndexV2Parser.readFrom(INDEX_FILE);
+        toolsIndex = ToolsIndexLeaves.assemble(ToolsIndexLeaves.flatten(parsedToolsIndex), parsedToolsIndex.getJdkDistributionSynonyms());
+        fetchedToolsIndex = ToolIndexV2Parser.readFrom(INDEX_FILE);
+        outputDirectory = Files.createTempDirectory("tools-index-benchmark");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(outputDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(outputDirectory);
+    }
+
+    @Benchmark
+    public ToolsIndexV2 readIndex() {
+        return ToolIndexV2Parser.readFrom(INDEX_FILE);
+    }
+
+    @Benchmark
+    public void writeIndex() {
+        ToolIndexV2Parser.writeTo(toolsIndex, outputDirectory.resolve("index-v2.json").toFile());
+    }
+
+    @Benchmark
+    public void writeIndexes() {
+        ToolIndexV2Parser.writeTo(toolsIndex, outputDirectory.resolve("index-v2.json").toFile());
+        ToolIndexParser.writeTo(toolsIndex.toLegacyToolsIndex(), outputDirectory.resolve("index.json").toFile());
+    }
+
+    @Benchmark
+    public void writeIndexesInSinglePass() {
+        ToolsIndexWriter.writeTo(toolsIndex, outputDirectory.resolve("index-v2.json").toFile(), outputDirectory.resolve("index.json").toFile());
+    }
+
+    @Benchmark
+    public ToolsIndex toLegacyToolsIndex() {
+        return toolsIndex.toLegacyToolsIndex();
+    }
+
+    @Benchmark
+    public ToolsIndexV2 mergeIndexes() {
+        return GenerateToolsIndexMojo.mergeIndexes(List.of(toolsIndex, fetchedToolsIndex));
+    }
+
+    @Benchmark
+    public ToolsIndexV2 accumulateIndexes() {
+        ToolsIndexAccumulator accumulator = new ToolsIndexAccumulator();
+        accumulator.add(toolsIndex);
+        accumulator.add(fetchedToolsIndex);
+        return accumulator.freeze();
+    }
+
+    @Benchmark
+    public List<ToolsIndexLeaf> changedLeaves() {
+        return ToolsIndexLeaves.changedLeaves(toolsIndex, fetchedToolsIndex);
+    }
+
+}
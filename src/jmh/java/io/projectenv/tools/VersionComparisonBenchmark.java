@@ -0,0 +1,64 @@
+package io.projectenv.tools;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SortedCollections#compareVersions} with the previous implementation, which split
+ * the versions on every comparison, by sorting the versions of index-v2.json into semver ordered maps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionComparisonBenchmark {
+
+    private List<List<String>> versionsByTool;
+
+    @Setup
+    public void setUp() {
+        Map<String, List<String>> versions = new HashMap<>();
+        for (ToolsIndexLeaf leaf : ToolsIndexLeaves.flatten(ToolIndexV2Parser.readFrom(new File("index-v2.json")))) {
+            String key = leaf.key().tool() + "/" + leaf.key().distribution();
+            List<String> toolVersions = versions.computeIfAbsent(key, k -> new ArrayList<>());
+            if (toolVersions.isEmpty() || !toolVersions.getLast().equals(leaf.key().version())) {
+                toolVersions.add(leaf.key().version());
+            }
+        }
+
+        versionsByTool = new ArrayList<>();
+        for (List<String> toolVersions : versions.values()) {
+            List<String> shuffledVersions = new ArrayList<>(toolVersions);
+            Collections.shuffle(shuffledVersions, new Random(42));
+            versionsByTool.add(shuffledVersions);
+        }
+    }
+
+    @Benchmark
+    public int sortWithCompareVersions() {
+        return sort(SortedCollections::compareVersions);
+    }
+
+    @Benchmark
+    public int sortWithSplittingComparator() {
+        return sort(SplittingVersionComparator::compareVersions);
+    }
+
+    private int sort(Comparator<String> comparator) {
+        int size = 0;
+        for (List<String> versions : versionsByTool) {
+            SortedMap<String, Boolean> map = new TreeMap<>(comparator);
+            for (String version : versions) {
+                map.put(version, Boolean.TRUE);
+            }
+            size += map.size();
+        }
+        return size;
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.projectenv.tools;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes files through a temporary file in the target directory which is moved over the target
+ * once it is complete, so that a failure while writing never leaves a truncated file behind.
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() {
+        // noop
+    }
+
+    public static void write(Path target, WriterAction action) throws IOException {
+        Path temporaryFile = createTemporaryFile(target);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                action.write(writer);
+            }
+            moveIntoPlace(temporaryFile, target);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    public static void write(Path target, byte[] content) throws IOException {
+        Path temporaryFile = createTemporaryFile(target);
+        try {
+            Files.write(temporaryFile, content);
+            moveIntoPlace(temporaryFile, target);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static Path createTemporaryFile(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+    }
+
+    private static void moveIntoPlace(Path temporaryFile, Path target) throws IOException {
+        try {
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @FunctionalInterface
+    public interface WriterAction {
+
+        void write(Writer writer) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package io.projectenv.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.projectenv.tools.CompactToolsIndexWriter.*;
+
+/**
+ * Read access to a tools index written by {@link CompactToolsIndexWriter}.
+ * <p>
+ * The file is memory-mapped and looked up in place with binary searches over the sorted string table
+ * and the sorted records, so only the strings of the requested downloads are decoded.
+ */
+public class CompactToolsIndex {
+
+    private static final OperatingSystem[] OPERATING_SYSTEMS = OperatingSystem.values();
+    private static final CpuArchitecture[] CPU_ARCHITECTURES = CpuArchitecture.values();
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringTableOffset;
+    private final int synonymTableOffset;
+    private final int synonymCount;
+
+    private CompactToolsIndex(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compact tools index");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported compact tools index version " + buffer.getShort(4));
+        }
+        if (buffer.getShort(6) != ToolType.values().length) {
+            throw new IllegalArgumentException("Unsupported number of tools in compact tools index: " + buffer.getShort(6));
+        }
+
+        this.buffer = buffer;
+        this.stringCount = buffer.getInt(8);
+        this.stringTableOffset = buffer.getInt(12);
+        this.synonymTableOffset = buffer.getInt(16);
+        this.synonymCount = buffer.getInt(20);
+    }
+
+    public static CompactToolsIndex open(File compactToolsIndexFile) {
+        try (FileChannel channel = FileChannel.open(compactToolsIndexFile.toPath(), StandardOpenOption.READ)) {
+            return new CompactToolsIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static CompactToolsIndex wrap(byte[] content) {
+        return new CompactToolsIndex(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Resolves a JDK distribution synonym to the distribution id.
+     * Distribution ids resolve to themselves, unknown names to an empty result.
+     */
+    public Optional<String> resolveJdkDistribution(String distributionOrSynonym) {
+        int stringId = findString(distributionOrSynonym);
+        if (stringId < 0) {
+            return Optional.empty();
+        }
+
+        int low = 0;
+        int high = synonymCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int synonymId = buffer.getInt(synonymTableOffset + middle * SYNONYM_RECORD_SIZE);
+            if (synonymId < stringId) {
+                low = middle + 1;
+            } else if (synonymId > stringId) {
+                high = middle - 1;
+            } else {
+                return Optional.of(getString(buffer.getInt(synonymTableOffset + middle * SYNONYM_RECORD_SIZE + Integer.BYTES)));
+            }
+        }
+
+        if (lookup(ToolType.JDK, distributionOrSynonym, null).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(distributionOrSynonym);
+    }
+
+    /**
+     * Returns the downloads of the given tool version, or of all versions if no version is given.
+     * The distribution is only used for {@link ToolType#JDK}.
+     */
+    public List<ToolsIndexLeaf> lookup(ToolType tool, String distribution, String version) {
+        int distributionId = -1;
+        if (tool == ToolType.JDK) {
+            distributionId = findString(distribution);
+            if (distributionId < 0) {
+                return List.of();
+            }
+        }
+
+        int versionId = -1;
+        if (version != null) {
+            versionId = findString(version);
+            if (versionId < 0) {
+                return List.of();
+            }
+        }
+
+        int sectionEntryOffset = HEADER_SIZE + tool.ordinal() * SECTION_ENTRY_SIZE;
+        int sectionOffset = buffer.getInt(sectionEntryOffset);
+        int recordCount = buffer.getInt(sectionEntryOffset + Integer.BYTES);
+
+        List<ToolsIndexLeaf> leaves = new ArrayList<>();
+        for (int index = firstRecord(sectionOffset, recordCount, distributionId, versionId); index < recordCount; index++) {
+            int recordOffset = sectionOffset + index * RECORD_SIZE;
+            if (compareRecord(recordOffset, distributionId, versionId) != 0) {
+                break;
+            }
+            leaves.add(toLeaf(tool, recordOffset));
+        }
+        return leaves;
+    }
+
+    /**
+     * Returns the index of the first record matching the distribution and version (if not -1),
+     * or the index of the first greater record.
+     */
+    private int firstRecord(int sectionOffset, int recordCount, int distributionId, int versionId) {
+        int low = 0;
+        int high = recordCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareRecord(sectionOffset + middle * RECORD_SIZE, distributionId, versionId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareRecord(int recordOffset, int distributionId, int versionId) {
+        int result = Integer.compare(buffer.getInt(recordOffset), distributionId);
+        if (result != 0 || versionId < 0) {
+            return result;
+        }
+        return Integer.compare(buffer.getInt(recordOffset + Integer.BYTES), versionId);
+    }
+
+    private ToolsIndexLeaf toLeaf(ToolType tool, int recordOffset) {
+        int distributionId = buffer.getInt(recordOffset);
+        int versionId = buffer.getInt(recordOffset + 4);
+        byte operatingSystem = buffer.get(recordOffset + 8);
+        byte cpuArchitecture = buffer.get(recordOffset + 9);
+        int urlPrefixId = buffer.getInt(recordOffset + 12);
+        int urlFileNameId = buffer.getInt(recordOffset + 16);
+
+        var key = new ToolsIndexLeaf.Key(tool,
+                distributionId >= 0 ? getString(distributionId) : null,
+                getString(versionId),
+                operatingSystem >= 0 ? OPERATING_SYSTEMS[operatingSystem] : null,
+                cpuArchitecture >= 0 ? CPU_ARCHITECTURES[cpuArchitecture] : null);
+        return new ToolsIndexLeaf(key, getString(urlPrefixId) + getString(urlFileNameId));
+    }
+
+    /**
+     * Returns the id of the given string, or -1 if the string table does not contain it.
+     */
+    private int findString(String value) {
+        if (value == null) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = stringCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = getString(middle).compareTo(value);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private String getString(int stringId) {
+        int offset = buffer.getInt(stringTableOffset + stringId * Integer.BYTES);
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        byte[] bytes = new byte[length];
+        buffer.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
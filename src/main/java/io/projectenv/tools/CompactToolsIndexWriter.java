@@ -0,0 +1,176 @@
+package io.projectenv.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes a {@link ToolsIndexV2} in the compact binary format read by {@link CompactToolsIndex}.
+ * <p>
+ * All values are big-endian. The file consists of:
+ * <ol>
+ *     <li>a header: magic ({@code PEIX}), format version, number of tool sections, string count,
+ *     string table offset, synonym table offset and synonym count, followed by offset and record
+ *     count of each tool section in {@link ToolType} ordinal order</li>
+ *     <li>the string table: an offset per string followed by the strings as length-prefixed UTF-8.
+ *     Strings are sorted, so comparing two string ids is equivalent to comparing the strings</li>
+ *     <li>one section per tool with fixed-width records of distribution id, version id, operating
+ *     system ordinal, CPU architecture ordinal, URL prefix id and URL file name id, sorted by their keys.
+ *     Missing keys are stored as -1</li>
+ *     <li>the synonym table with records of synonym id and distribution id, sorted by synonym</li>
+ * </ol>
+ * Download URLs are split at their last slash, so that the directories shared between downloads are stored once.
+ */
+public final class CompactToolsIndexWriter {
+
+    static final int MAGIC = 0x50454958;
+    static final short FORMAT_VERSION = 1;
+
+    static final int HEADER_SIZE = 24;
+    static final int SECTION_ENTRY_SIZE = 8;
+    static final int RECORD_SIZE = 20;
+    static final int SYNONYM_RECORD_SIZE = 8;
+
+    private CompactToolsIndexWriter() {
+        // noop
+    }
+
+    public static void writeTo(ToolsIndexV2 toolsIndex, File compactToolsIndexFile) {
+        try {
+            AtomicFiles.write(compactToolsIndexFile.toPath(), toBytes(toolsIndex));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static byte[] toBytes(ToolsIndexV2 toolsIndex) throws IOException {
+        List<ToolsIndexLeaf> leaves = ToolsIndexLeaves.flatten(toolsIndex);
+        SortedMap<String, SortedSet<String>> jdkDistributionSynonyms = toolsIndex.getJdkDistributionSynonyms() != null
+                ? toolsIndex.getJdkDistributionSynonyms()
+                : Collections.emptySortedMap();
+
+        SortedSet<String> strings = new TreeSet<>();
+        for (ToolsIndexLeaf leaf : leaves) {
+            if (leaf.key().distribution() != null) {
+                strings.add(leaf.key().distribution());
+            }
+            strings.add(leaf.key().version());
+            strings.add(urlPrefix(leaf.url()));
+            strings.add(urlFileName(leaf.url()));
+        }
+        for (var entry : jdkDistributionSynonyms.entrySet()) {
+            strings.add(entry.getKey());
+            strings.addAll(entry.getValue());
+        }
+
+        Map<String, Integer> stringIds = new HashMap<>();
+        for (String string : strings) {
+            stringIds.put(string, stringIds.size());
+        }
+
+        Map<ToolType, List<int[]>> sections = new EnumMap<>(ToolType.class);
+        for (ToolType tool : ToolType.values()) {
+            sections.put(tool, new ArrayList<>());
+        }
+        for (ToolsIndexLeaf leaf : leaves) {
+            var key = leaf.key();
+            sections.get(key.tool()).add(new int[]{
+                    key.distribution() != null ? stringIds.get(key.distribution()) : -1,
+                    stringIds.get(key.version()),
+                    key.operatingSystem() != null ? key.operatingSystem().ordinal() : -1,
+                    key.cpuArchitecture() != null ? key.cpuArchitecture().ordinal() : -1,
+                    stringIds.get(urlPrefix(leaf.url())),
+                    stringIds.get(urlFileName(leaf.url()))
+            });
+        }
+        Comparator<int[]> recordOrder = Comparator.<int[]>comparingInt(record -> record[0])
+                .thenComparingInt(record -> record[1])
+                .thenComparingInt(record -> record[2])
+                .thenComparingInt(record -> record[3]);
+        sections.values().forEach(records -> records.sort(recordOrder));
+
+        List<int[]> synonymRecords = new ArrayList<>();
+        for (var entry : jdkDistributionSynonyms.entrySet()) {
+            for (String synonym : entry.getValue()) {
+                synonymRecords.add(new int[]{stringIds.get(synonym), stringIds.get(entry.getKey())});
+            }
+        }
+        synonymRecords.sort(Comparator.comparingInt(record -> record[0]));
+
+        List<byte[]> encodedStrings = strings.stream()
+                .map(string -> string.getBytes(StandardCharsets.UTF_8))
+                .toList();
+
+        int stringTableOffset = HEADER_SIZE + ToolType.values().length * SECTION_ENTRY_SIZE;
+        int offset = stringTableOffset + encodedStrings.size() * Integer.BYTES;
+        int[] stringOffsets = new int[encodedStrings.size()];
+        for (int index = 0; index < encodedStrings.size(); index++) {
+            stringOffsets[index] = offset;
+            offset += Short.BYTES + encodedStrings.get(index).length;
+        }
+
+        Map<ToolType, Integer> sectionOffsets = new EnumMap<>(ToolType.class);
+        for (ToolType tool : ToolType.values()) {
+            sectionOffsets.put(tool, offset);
+            offset += sections.get(tool).size() * RECORD_SIZE;
+        }
+        int synonymTableOffset = offset;
+
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeShort(FORMAT_VERSION);
+            output.writeShort(ToolType.values().length);
+            output.writeInt(encodedStrings.size());
+            output.writeInt(stringTableOffset);
+            output.writeInt(synonymTableOffset);
+            output.writeInt(synonymRecords.size());
+            for (ToolType tool : ToolType.values()) {
+                output.writeInt(sectionOffsets.get(tool));
+                output.writeInt(sections.get(tool).size());
+            }
+
+            for (int stringOffset : stringOffsets) {
+                output.writeInt(stringOffset);
+            }
+            for (byte[] encodedString : encodedStrings) {
+                if (encodedString.length > 0xffff) {
+                    throw new IllegalArgumentException("String too long for compact index: " + new String(encodedString, StandardCharsets.UTF_8));
+                }
+                output.writeShort(encodedString.length);
+                output.write(encodedString);
+            }
+
+            for (ToolType tool : ToolType.values()) {
+                for (int[] record : sections.get(tool)) {
+                    output.writeInt(record[0]);
+                    output.writeInt(record[1]);
+                    output.writeByte(record[2]);
+                    output.writeByte(record[3]);
+                    output.writeShort(0);
+                    output.writeInt(record[4]);
+                    output.writeInt(record[5]);
+                }
+            }
+
+            for (int[] synonymRecord : synonymRecords) {
+                output.writeInt(synonymRecord[0]);
+                output.writeInt(synonymRecord[1]);
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static String urlPrefix(String url) {
+        return url.substring(0, url.lastIndexOf('/') + 1);
+    }
+
+    private static String urlFileName(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+}
@@ -0,0 +1,19 @@
+package io.projectenv.tools;
+
+import org.immutables.gson.Gson;
+import org.immutables.value.Value;
+
+@Gson.TypeAdapters
+@Value.Immutable
+public interface DatasourceMetrics {
+
+    long getWallTimeMillis();
+
+    /**
+     * Number of download URLs the datasource returned.
+     */
+    int getLeafCount();
+
+    boolean isFailed();
+
+}
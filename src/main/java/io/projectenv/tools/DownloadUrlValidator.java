@@ -7,14 +7,14 @@ import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.SortedMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.plugin.logging.Log;
@@ -26,286 +26,181 @@ import org.apache.maven.plugin.logging.Log;
  * fails -- they are kept with a warning to avoid false positives from transient
  * outages. New URLs that fail validation are rejected to prevent bad data from
  * entering the index.
+ * <p>
+ * Results are looked up in a {@link UrlValidationCache} first: recently validated URLs are
+ * not checked again, and older ones are revalidated with a conditional request.
  */
 public class DownloadUrlValidator {
 
-    private static final int MAX_CONCURRENT_VALIDATIONS = 40;
-
     private final ResilientHttpClient httpClient;
-    private final Semaphore semaphore = new Semaphore(MAX_CONCURRENT_VALIDATIONS);
+    private final UrlValidationCache cache;
     private final Log log;
 
-    public DownloadUrlValidator(Log log) {
-        this.httpClient = ResilientHttpClient.create(log);
+    private final AtomicInteger cachedCount = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+
+    public DownloadUrlValidator(ResilientHttpClient httpClient, UrlValidationCache cache, Log log) {
+        this.httpClient = httpClient;
+        this.cache = cache;
         this.log = log;
     }
 
     /**
      * Validates all URLs in the merged index. Existing URLs (present in previousIndex)
      * are kept even if validation fails. New URLs are only included if validation succeeds.
+     * <p>
+     * Every {@link ToolsIndexLeaf leaf} of the index is validated by its own task, the leaves
+     * which are kept are assembled into a new index once all tasks are done. URLs which occur
+     * under several keys are only checked once, all of their leaves share the result.
      */
     public ToolsIndexV2 validateUrls(ToolsIndexV2 previousIndex, ToolsIndexV2 mergedIndex) {
-        // Null-safe references to previous index maps (null when no previous index file exists)
-        Map<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> prevJdkVersions =
-                nullToEmpty(previousIndex.getJdkVersions());
-        Map<String, String> prevGradleVersions = nullToEmpty(previousIndex.getGradleVersions());
-        Map<String, String> prevMavenVersions = nullToEmpty(previousIndex.getMavenVersions());
-        Map<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> prevMvndVersions =
-                nullToEmpty(previousIndex.getMvndVersions());
-        Map<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> prevNodeVersions =
-                nullToEmpty(previousIndex.getNodeVersions());
-        Map<String, SortedMap<OperatingSystem, String>> prevClojureVersions =
-                nullToEmpty(previousIndex.getClojureVersions());
-
-        SortedMap<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> validatedJdkVersions = SortedCollections.createNaturallySortedMap();
-        SortedMap<String, String> validatedGradleVersions = SortedCollections.createSemverSortedMap();
-        SortedMap<String, String> validatedMavenVersions = SortedCollections.createSemverSortedMap();
-        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> validatedMvndVersions = SortedCollections.createSemverSortedMap();
-        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> validatedNodeVersions = SortedCollections.createSemverSortedMap();
-        SortedMap<String, SortedMap<OperatingSystem, String>> validatedClojureVersions = SortedCollections.createSemverSortedMap();
-
-        AtomicInteger totalCount = new AtomicInteger();
-        AtomicInteger keptInvalidCount = new AtomicInteger();
-        AtomicInteger rejectedNewCount = new AtomicInteger();
+        Set<ToolsIndexLeaf.Key> previousKeys = ToolsIndexLeaves.toMap(previousIndex).keySet();
+        List<ToolsIndexLeaf> leaves = ToolsIndexLeaves.flatten(mergedIndex);
 
+        ValidationRun run = startRun();
+
+        List<ToolsIndexLeaf> validatedLeaves = new ArrayList<>(leaves.size());
         try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            List<Future<?>> futures = new ArrayList<>();
-
-            for (Map.Entry<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> distributionEntry : mergedIndex.getJdkVersions().entrySet()) {
-                for (Map.Entry<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> versionEntry : distributionEntry.getValue().entrySet()) {
-                    for (Map.Entry<OperatingSystem, SortedMap<CpuArchitecture, String>> osEntry : versionEntry.getValue().entrySet()) {
-                        for (Map.Entry<CpuArchitecture, String> cpuEntry : osEntry.getValue().entrySet()) {
-                            String distribution = distributionEntry.getKey();
-                            String version = versionEntry.getKey();
-                            OperatingSystem os = osEntry.getKey();
-                            CpuArchitecture cpu = cpuEntry.getKey();
-                            String url = cpuEntry.getValue();
-
-                            var prevDistribution = prevJdkVersions.get(distribution);
-                            var prevVersion = prevDistribution != null ? prevDistribution.get(version) : null;
-                            var prevOs = prevVersion != null ? prevVersion.get(os) : null;
-                            boolean existedBefore = prevOs != null && prevOs.containsKey(cpu);
-
-                            futures.add(executor.submit(() -> {
-                                totalCount.incrementAndGet();
-                                boolean valid = isUrlValid(url);
-                                if (!valid && !existedBefore) {
-                                    rejectedNewCount.incrementAndGet();
-                                    log.warn("Rejected new invalid URL for JDK " + distribution + " " + version + " " + os + "/" + cpu + ": " + url);
-                                    return;
-                                }
-                                if (!valid) {
-                                    keptInvalidCount.incrementAndGet();
-                                    log.warn("Keeping potentially broken URL for JDK " + distribution + " " + version + " " + os + "/" + cpu + " (existed in previous index): " + url);
-                                }
-                                synchronized (validatedJdkVersions) {
-                                    validatedJdkVersions
-                                            .computeIfAbsent(distribution, k -> SortedCollections.createSemverSortedMap())
-                                            .computeIfAbsent(version, k -> SortedCollections.createNaturallySortedMap())
-                                            .computeIfAbsent(os, k -> SortedCollections.createNaturallySortedMap())
-                                            .put(cpu, url);
-                                }
-                            }));
-                        }
-                    }
-                }
+            List<Future<Boolean>> futures = new ArrayList<>(leaves.size());
+            for (ToolsIndexLeaf leaf : leaves) {
+                boolean existedBefore = previousKeys.contains(leaf.key());
+                futures.add(executor.submit(() -> run.isKept(leaf, existedBefore)));
             }
 
-            for (Map.Entry<String, String> entry : mergedIndex.getGradleVersions().entrySet()) {
-                boolean existedBefore = prevGradleVersions.containsKey(entry.getKey());
-
-                futures.add(executor.submit(() -> {
-                    totalCount.incrementAndGet();
-                    boolean valid = isUrlValid(entry.getValue());
-                    if (!valid && !existedBefore) {
-                        rejectedNewCount.incrementAndGet();
-                        log.warn("Rejected new invalid URL for Gradle " + entry.getKey() + ": " + entry.getValue());
-                        return;
-                    }
-                    if (!valid) {
-                        keptInvalidCount.incrementAndGet();
-                        log.warn("Keeping potentially broken URL for Gradle " + entry.getKey() + " (existed in previous index): " + entry.getValue());
-                    }
-                    synchronized (validatedGradleVersions) {
-                        validatedGradleVersions.put(entry.getKey(), entry.getValue());
-                    }
-                }));
+            for (int index = 0; index < leaves.size(); index++) {
+                if (futures.get(index).get()) {
+                    validatedLeaves.add(leaves.get(index));
+                }
             }
+        } catch (Exception e) {
+            throw new RuntimeException("URL validation failed", e);
+        }
 
-            for (Map.Entry<String, String> entry : mergedIndex.getMavenVersions().entrySet()) {
-                boolean existedBefore = prevMavenVersions.containsKey(entry.getKey());
-
-                futures.add(executor.submit(() -> {
-                    totalCount.incrementAndGet();
-                    boolean valid = isUrlValid(entry.getValue());
-                    if (!valid && !existedBefore) {
-                        rejectedNewCount.incrementAndGet();
-                        log.warn("Rejected new invalid URL for Maven " + entry.getKey() + ": " + entry.getValue());
-                        return;
-                    }
-                    if (!valid) {
-                        keptInvalidCount.incrementAndGet();
-                        log.warn("Keeping potentially broken URL for Maven " + entry.getKey() + " (existed in previous index): " + entry.getValue());
-                    }
-                    synchronized (validatedMavenVersions) {
-                        validatedMavenVersions.put(entry.getKey(), entry.getValue());
-                    }
-                }));
-            }
+        run.logSummary();
 
-            for (Map.Entry<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> versionEntry : mergedIndex.getMvndVersions().entrySet()) {
-                for (Map.Entry<OperatingSystem, SortedMap<CpuArchitecture, String>> osEntry : versionEntry.getValue().entrySet()) {
-                    for (Map.Entry<CpuArchitecture, String> cpuEntry : osEntry.getValue().entrySet()) {
-                        String version = versionEntry.getKey();
-                        OperatingSystem os = osEntry.getKey();
-                        CpuArchitecture cpu = cpuEntry.getKey();
-                        String url = cpuEntry.getValue();
-
-                        var prevVersion = prevMvndVersions.get(version);
-                        var prevOs = prevVersion != null ? prevVersion.get(os) : null;
-                        boolean existedBefore = prevOs != null && prevOs.containsKey(cpu);
-
-                        futures.add(executor.submit(() -> {
-                            totalCount.incrementAndGet();
-                            boolean valid = isUrlValid(url);
-                            if (!valid && !existedBefore) {
-                                rejectedNewCount.incrementAndGet();
-                                log.warn("Rejected new invalid URL for mvnd " + version + " " + os + "/" + cpu + ": " + url);
-                                return;
-                            }
-                            if (!valid) {
-                                keptInvalidCount.incrementAndGet();
-                                log.warn("Keeping potentially broken URL for mvnd " + version + " " + os + "/" + cpu + " (existed in previous index): " + url);
-                            }
-                            synchronized (validatedMvndVersions) {
-                                validatedMvndVersions
-                                        .computeIfAbsent(version, k -> SortedCollections.createNaturallySortedMap())
-                                        .computeIfAbsent(os, k -> SortedCollections.createNaturallySortedMap())
-                                        .put(cpu, url);
-                            }
-                        }));
-                    }
-                }
-            }
+        return ToolsIndexLeaves.assemble(validatedLeaves, mergedIndex.getJdkDistributionSynonyms());
+    }
 
-            for (Map.Entry<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> versionEntry : mergedIndex.getNodeVersions().entrySet()) {
-                for (Map.Entry<OperatingSystem, SortedMap<CpuArchitecture, String>> osEntry : versionEntry.getValue().entrySet()) {
-                    for (Map.Entry<CpuArchitecture, String> cpuEntry : osEntry.getValue().entrySet()) {
-                        String version = versionEntry.getKey();
-                        OperatingSystem os = osEntry.getKey();
-                        CpuArchitecture cpu = cpuEntry.getKey();
-                        String url = cpuEntry.getValue();
-
-                        var prevVersion = prevNodeVersions.get(version);
-                        var prevOs = prevVersion != null ? prevVersion.get(os) : null;
-                        boolean existedBefore = prevOs != null && prevOs.containsKey(cpu);
-
-                        futures.add(executor.submit(() -> {
-                            totalCount.incrementAndGet();
-                            boolean valid = isUrlValid(url);
-                            if (!valid && !existedBefore) {
-                                rejectedNewCount.incrementAndGet();
-                                log.warn("Rejected new invalid URL for Node " + version + " " + os + "/" + cpu + ": " + url);
-                                return;
-                            }
-                            if (!valid) {
-                                keptInvalidCount.incrementAndGet();
-                                log.warn("Keeping potentially broken URL for Node " + version + " " + os + "/" + cpu + " (existed in previous index): " + url);
-                            }
-                            synchronized (validatedNodeVersions) {
-                                validatedNodeVersions
-                                        .computeIfAbsent(version, k -> SortedCollections.createNaturallySortedMap())
-                                        .computeIfAbsent(os, k -> SortedCollections.createNaturallySortedMap())
-                                        .put(cpu, url);
-                            }
-                        }));
-                    }
-                }
+    /**
+     * Starts a validation run for validating leaves one by one, e.g. as they arrive from the datasources.
+     * Only one run may be active at a time.
+     */
+    public ValidationRun startRun() {
+        cachedCount.set(0);
+        notModifiedCount.set(0);
+        return new ValidationRun();
+    }
+
+    /**
+     * The state of one validation run. URLs which occur under several keys are only checked once per run.
+     */
+    public class ValidationRun {
+
+        private final AtomicInteger checkedCount = new AtomicInteger();
+        private final AtomicInteger keptInvalidCount = new AtomicInteger();
+        private final AtomicInteger rejectedNewCount = new AtomicInteger();
+        private final AtomicInteger deduplicatedCount = new AtomicInteger();
+        private final ConcurrentMap<String, CompletableFuture<Boolean>> results = new ConcurrentHashMap<>();
+
+        private ValidationRun() {
+            // noop
+        }
+
+        /**
+         * Validates the URL of the leaf and returns whether the leaf belongs into the index,
+         * which is the case if its URL is valid or its key existed in the previous index.
+         */
+        public boolean isKept(ToolsIndexLeaf leaf, boolean existedBefore) {
+            checkedCount.incrementAndGet();
+
+            boolean valid = isUrlValidOnce(leaf.url());
+            if (!valid && !existedBefore) {
+                rejectedNewCount.incrementAndGet();
+                log.warn("Rejected new invalid URL for " + leaf.key() + ": " + leaf.url());
+                return false;
             }
+            if (!valid) {
+                keptInvalidCount.incrementAndGet();
+                log.warn("Keeping potentially broken URL for " + leaf.key() + " (existed in previous index): " + leaf.url());
+            }
+            return true;
+        }
 
-            for (Map.Entry<String, SortedMap<OperatingSystem, String>> versionEntry : mergedIndex.getClojureVersions().entrySet()) {
-                for (Map.Entry<OperatingSystem, String> osEntry : versionEntry.getValue().entrySet()) {
-                    String version = versionEntry.getKey();
-                    OperatingSystem os = osEntry.getKey();
-                    String url = osEntry.getValue();
-
-                    var prevVersion = prevClojureVersions.get(version);
-                    boolean existedBefore = prevVersion != null && prevVersion.containsKey(os);
-
-                    futures.add(executor.submit(() -> {
-                        totalCount.incrementAndGet();
-                        boolean valid = isUrlValid(url);
-                        if (!valid && !existedBefore) {
-                            rejectedNewCount.incrementAndGet();
-                            log.warn("Rejected new invalid URL for Clojure " + version + " " + os + ": " + url);
-                            return;
-                        }
-                        if (!valid) {
-                            keptInvalidCount.incrementAndGet();
-                            log.warn("Keeping potentially broken URL for Clojure " + version + " " + os + " (existed in previous index): " + url);
-                        }
-                        synchronized (validatedClojureVersions) {
-                            validatedClojureVersions
-                                    .computeIfAbsent(version, k -> SortedCollections.createNaturallySortedMap())
-                                    .put(os, url);
-                        }
-                    }));
-                }
+        public void logSummary() {
+            log.info("URL validation complete: " + checkedCount.get() + " checked, "
+                    + keptInvalidCount.get() + " kept despite validation failure (previously indexed), "
+                    + rejectedNewCount.get() + " new URLs rejected, "
+                    + cachedCount.get() + " served from cache, "
+                    + notModifiedCount.get() + " revalidated as not modified, "
+                    + deduplicatedCount.get() + " requests saved by sharing results of duplicate URLs");
+        }
+
+        private boolean isUrlValidOnce(String url) {
+            var result = new CompletableFuture<Boolean>();
+            var existingResult = results.putIfAbsent(url, result);
+            if (existingResult != null) {
+                deduplicatedCount.incrementAndGet();
+                return existingResult.join();
             }
 
-            for (Future<?> future : futures) {
-                future.get();
+            try {
+                result.complete(isUrlValid(url));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("URL validation failed", e);
+            return result.join();
         }
 
-        log.info("URL validation complete: " + totalCount.get() + " checked, "
-                + keptInvalidCount.get() + " kept despite validation failure (previously indexed), "
-                + rejectedNewCount.get() + " new URLs rejected");
-
-        return ImmutableToolsIndexV2.builder()
-                .jdkVersions(validatedJdkVersions)
-                .jdkDistributionSynonyms(mergedIndex.getJdkDistributionSynonyms())
-                .gradleVersions(validatedGradleVersions)
-                .mavenVersions(validatedMavenVersions)
-                .mvndVersions(validatedMvndVersions)
-                .nodeVersions(validatedNodeVersions)
-                .clojureVersions(validatedClojureVersions)
-                .build();
     }
 
     private boolean isUrlValid(String url) {
+        var cachedEntry = cache.get(url);
+        if (cachedEntry.isPresent() && cache.isFresh(url, cachedEntry.get())) {
+            log.debug("Skipping recently validated URL " + url);
+            cachedCount.incrementAndGet();
+            return true;
+        }
+
         try {
-            semaphore.acquire();
-            try {
-                log.debug("Checking URL " + url);
-
-                var httpRequest = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
-                        .header("User-Agent", "project-env-tools/1.0")
-                        .build();
-
-                int statusCode = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
-
-                if (statusCode >= 200 && statusCode < 300) {
-                    log.debug("Got " + statusCode + " for " + url + " - valid");
-                    return true;
-                } else {
-                    log.warn("Got " + statusCode + " for " + url + " - invalid");
-                    return false;
-                }
-            } finally {
-                semaphore.release();
+            log.debug("Checking URL " + url);
+
+            var httpRequestBuilder = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .header("User-Agent", "project-env-tools/1.0");
+
+            // Only previously valid entries are revalidated conditionally, a 304 for
+            // a URL which failed before would otherwise hide a still broken download
+            var revalidatedEntry = cachedEntry.filter(UrlValidationCacheEntry::isValid);
+            revalidatedEntry.flatMap(UrlValidationCacheEntry::getEntityTag)
+                    .ifPresent(entityTag -> httpRequestBuilder.header("If-None-Match", entityTag));
+            revalidatedEntry.flatMap(UrlValidationCacheEntry::getLastModified)
+                    .ifPresent(lastModified -> httpRequestBuilder.header("If-Modified-Since", lastModified));
+
+            var response = httpClient.send(httpRequestBuilder.build(), HttpResponse.BodyHandlers.discarding());
+            int statusCode = response.statusCode();
+
+            if (statusCode == 304 && revalidatedEntry.isPresent()) {
+                log.debug("Got " + statusCode + " for " + url + " - valid (not modified)");
+                notModifiedCount.incrementAndGet();
+                cache.touch(url, revalidatedEntry.get());
+                return true;
+            }
+
+            cache.put(url, statusCode,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+
+            if (statusCode >= 200 && statusCode < 300) {
+                log.debug("Got " + statusCode + " for " + url + " - valid");
+                return true;
+            } else {
+                log.warn("Got " + statusCode + " for " + url + " - invalid");
+                return false;
             }
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static <K, V> Map<K, V> nullToEmpty(Map<K, V> map) {
-        return map != null ? map : Collections.emptyMap();
-    }
-
 }
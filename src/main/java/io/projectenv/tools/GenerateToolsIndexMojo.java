@@ -2,10 +2,16 @@ package io.projectenv.tools;
 
 import io.projectenv.tools.clojure.ClojureVersionsDatasource;
 import io.projectenv.tools.gradle.GradleVersionsDatasource;
+import io.projectenv.tools.http.HttpClientConfig;
+import io.projectenv.tools.http.HttpMetrics;
+import io.projectenv.tools.http.HttpResponseCache;
+import io.projectenv.tools.http.ImmutableHttpClientConfig;
 import io.projectenv.tools.http.ResilientHttpClient;
+import io.projectenv.tools.jdk.GraalVmVersionCache;
 import io.projectenv.tools.jdk.GraalVmVersionsDatasource;
 import io.projectenv.tools.jdk.TemurinVersionsDatasource;
 import io.projectenv.tools.github.GithubClient;
+import io.projectenv.tools.github.impl.GraphQlGithubClient;
 import io.projectenv.tools.github.impl.SimpleGithubClient;
 import io.projectenv.tools.maven.MavenDaemonVersionsDatasource;
 import io.projectenv.tools.maven.MavenVersionsDatasource;
@@ -18,15 +24,17 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 /**
  * Generates the project-env tools index by fetching version information
@@ -44,6 +52,13 @@ public class GenerateToolsIndexMojo extends AbstractMojo {
     @Parameter(property = "githubAccessToken", required = true)
     private String githubAccessToken;
 
+    /**
+     * The Github API used to fetch releases: "rest" or "graphql".
+     * The GraphQL API only transfers the fields needed and fetches several repositories per request.
+     */
+    @Parameter(property = "githubApi", defaultValue = "rest")
+    private String githubApi;
+
     /**
      * Comma-separated list of tools to index (e.g. "nodejs,maven").
      * Available: temurin, graalvm, nodejs, maven, mvnd, gradle, clojure.
@@ -52,38 +67,277 @@ public class GenerateToolsIndexMojo extends AbstractMojo {
     @Parameter(property = "tools")
     private String tools;
 
+    /**
+     * Directory for state which is kept between runs (e.g. URL validation results).
+     * If not specified, a ".index-cache" directory next to the index file is used.
+     */
+    @Parameter(property = "cacheDirectory")
+    private File cacheDirectory;
+
+    /**
+     * Number of hours a successful URL validation is trusted before the URL is revalidated.
+     * Set to 0 to validate every URL on each run.
+     */
+    @Parameter(property = "urlValidationMaxAgeHours", defaultValue = "168")
+    private int urlValidationMaxAgeHours;
+
+    /**
+     * If enabled, Github API responses are stored in the cache directory and revalidated
+     * with conditional requests on subsequent runs.
+     */
+    @Parameter(property = "githubResponseCache", defaultValue = "true")
+    private boolean githubResponseCache;
+
+    /**
+     * If enabled, only download URLs which are new or changed compared to the existing index
+     * are validated, and the index files are not rewritten when nothing changed.
+     */
+    @Parameter(property = "incremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * If enabled, the index file and the legacy index file are written in a single pass over the index.
+     */
+    @Parameter(property = "singlePassIndexWrite", defaultValue = "false")
+    private boolean singlePassIndexWrite;
+
+    /**
+     * If set, the index is additionally written to this file in the compact binary format
+     * (see {@link CompactToolsIndexWriter}), which clients can look up without parsing the whole index.
+     */
+    @Parameter(property = "compactIndexFile")
+    private File compactIndexFile;
+
+    /**
+     * If enabled, HTTP/2 is preferred, which multiplexes all requests to a host over a single connection.
+     */
+    @Parameter(property = "httpPreferHttp2", defaultValue = "true")
+    private boolean httpPreferHttp2;
+
+    @Parameter(property = "httpConnectTimeoutSeconds", defaultValue = "30")
+    private int httpConnectTimeoutSeconds;
+
+    /**
+     * Timeout of a single HTTP request attempt, unless the request sets its own timeout.
+     * <p>
+     * The connection pool of the JDK client is configured JVM-wide with system properties, e.g.
+     * {@code MAVEN_OPTS="-Djdk.httpclient.connectionPoolSize=50 -Djdk.httpclient.keepalive.timeout=60"}.
+     */
+    @Parameter(property = "httpRequestTimeoutSeconds", defaultValue = "300")
+    private int httpRequestTimeoutSeconds;
+
+    /**
+     * If enabled, the Node.js versions are read from the release index (index.json) of nodejs.org
+     * instead of scraping the directory of every release.
+     */
+    @Parameter(property = "nodeReleaseIndex", defaultValue = "true")
+    private boolean nodeReleaseIndex;
+
+    /**
+     * Number of most recent Node.js versions whose release assets are fetched again on every run.
+     * The assets of all other versions in the existing index are taken over, since published releases do not change.
+     * Set to -1 to fetch the assets of all versions.
+     */
+    @Parameter(property = "nodeRecentVersionWindow", defaultValue = "10")
+    private int nodeRecentVersionWindow;
+
+    /**
+     * If enabled, the slow and heavily rate limited Maven archive listings are only fetched when the downloads
+     * listings contain versions which are missing from the existing index, or dropped versions it downloads from there.
+     */
+    @Parameter(property = "mavenSkipUnchangedArchive", defaultValue = "false")
+    private boolean mavenSkipUnchangedArchive;
+
+    /**
+     * If enabled, the GraalVM versions extracted from release archives are stored in the cache directory,
+     * so that only archives of new releases are read.
+     */
+    @Parameter(property = "graalVmVersionCache", defaultValue = "true")
+    private boolean graalVmVersionCache;
+
+    /**
+     * If enabled, download URLs are validated while the datasources are still fetching (see {@link ToolsIndexPipeline}),
+     * instead of after all datasources completed.
+     */
+    @Parameter(property = "pipelined", defaultValue = "false")
+    private boolean pipelined;
+
+    /**
+     * File the timings and HTTP request statistics of the run are written to as JSON.
+     * If not specified, an "index-metrics.json" file next to the index file is used.
+     */
+    @Parameter(property = "metricsReportFile")
+    private File metricsReportFile;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        GeneratorMetrics metrics = new GeneratorMetrics();
+        ResilientHttpClient httpClient = null;
+
         try {
+            // A single client for all requests, so that connections are reused across phases
+            // and the per-host limits account for every request of the run
+            httpClient = ResilientHttpClient.create(createHttpClientConfig(), getLog());
+
             var previousIndex = readOrCreateToolsIndex();
             var toolsIndex = previousIndex;
 
-            GithubClient githubClient = SimpleGithubClient.withAccessToken(githubAccessToken, getLog());
-            Map<String, ToolsIndexDatasource> allDatasources = createDatasources(githubClient);
+            GithubClient githubClient = createGithubClient(httpClient);
+            Map<String, ToolsIndexDatasource> allDatasources = createDatasources(githubClient, httpClient);
 
-            Map<String, ToolsIndexDatasource> datasources = selectDatasources(allDatasources);
+            Map<String, ToolsIndexDatasource> datasources = new LinkedHashMap<>();
+            selectDatasources(allDatasources).forEach((name, datasource) -> datasources.put(name, metrics.instrument(name, datasource)));
+
+            UrlValidationCache urlValidationCache = createUrlValidationCache();
+            DownloadUrlValidator downloadUrlValidator = new DownloadUrlValidator(httpClient, urlValidationCache, getLog());
 
             getLog().info("Fetching versions from " + datasources.size() + " datasources: " + datasources.keySet());
-            toolsIndex = fetchInParallel(datasources, toolsIndex);
+            long phaseStartNanos = System.nanoTime();
+            if (pipelined) {
+                ToolsIndexPipeline.Result result = new ToolsIndexPipeline(downloadUrlValidator, getLog())
+                        .run(datasources, previousIndex, incremental);
+                urlValidationCache.save();
+                metrics.recordPhase("fetchAndValidate", phaseStartNanos);
+
+                toolsIndex = result.toolsIndex();
+                if (incremental && result.validatedLeafCount() == 0 && !haveJdkDistributionSynonymsChanged(previousIndex, toolsIndex)) {
+                    getLog().info("No changes detected, leaving " + indexFile.getAbsolutePath() + " untouched");
+                    writeMissingCompactIndex(previousIndex);
+                    return;
+                }
+            } else {
+                toolsIndex = fetchInParallel(datasources, toolsIndex);
+                metrics.recordPhase("fetch", phaseStartNanos);
+                phaseStartNanos = System.nanoTime();
 
-            getLog().info("Validating download URLs...");
-            toolsIndex = new DownloadUrlValidator(getLog()).validateUrls(previousIndex, toolsIndex);
+                if (incremental) {
+                    List<ToolsIndexLeaf> changedLeaves = ToolsIndexLeaves.changedLeaves(previousIndex, toolsIndex);
+                    if (changedLeaves.isEmpty() && !haveJdkDistributionSynonymsChanged(previousIndex, toolsIndex)) {
+                        getLog().info("No changes detected, leaving " + indexFile.getAbsolutePath() + " untouched");
+                        writeMissingCompactIndex(previousIndex);
+                        return;
+                    }
 
-            ToolIndexV2Parser.writeTo(toolsIndex, indexFile);
-            ToolIndexParser.writeTo(toolsIndex.toLegacyToolsIndex(), legacyIndexFile);
+                    getLog().info("Validating " + changedLeaves.size() + " new or changed download URLs...");
+                    ToolsIndexV2 changes = ToolsIndexLeaves.assemble(changedLeaves, toolsIndex.getJdkDistributionSynonyms());
+                    toolsIndex = mergeIndexes(List.of(previousIndex, downloadUrlValidator.validateUrls(previousIndex, changes)));
+                } else {
+                    getLog().info("Validating download URLs...");
+                    toolsIndex = downloadUrlValidator.validateUrls(previousIndex, toolsIndex);
+                }
+                urlValidationCache.save();
+                metrics.recordPhase("validate", phaseStartNanos);
+            }
+
+            phaseStartNanos = System.nanoTime();
+
+            if (singlePassIndexWrite) {
+                ToolsIndexWriter.writeTo(toolsIndex, indexFile, legacyIndexFile);
+            } else {
+                ToolIndexV2Parser.writeTo(toolsIndex, indexFile);
+                ToolIndexParser.writeTo(toolsIndex.toLegacyToolsIndex(), legacyIndexFile);
+            }
+            if (compactIndexFile != null) {
+                CompactToolsIndexWriter.writeTo(toolsIndex, compactIndexFile);
+            }
+
+            metrics.recordPhase("write", phaseStartNanos);
 
             getLog().info("Tools index written to " + indexFile.getAbsolutePath());
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to generate tools index", e);
+        } finally {
+            reportMetrics(metrics, httpClient);
+            if (httpClient != null) {
+                httpClient.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the compact index if it is configured but does not exist yet, e.g. because it was newly configured
+     * while the index itself did not change.
+     */
+    private void writeMissingCompactIndex(ToolsIndexV2 toolsIndex) {
+        if (compactIndexFile != null && !compactIndexFile.exists()) {
+            CompactToolsIndexWriter.writeTo(toolsIndex, compactIndexFile);
+            getLog().info("Compact tools index written to " + compactIndexFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Logs and writes the metrics of the run, also if it failed. A failure to write them does not fail the run.
+     */
+    private void reportMetrics(GeneratorMetrics metrics, ResilientHttpClient httpClient) {
+        // Without a client, e.g. due to an invalid HTTP configuration, no requests were sent
+        MetricsReport report = metrics.createReport(httpClient != null ? httpClient.getMetrics() : new HttpMetrics());
+        metrics.logSummary(report, getLog());
+
+        File reportFile = metricsReportFile != null
+                ? metricsReportFile
+                : new File(indexFile.getAbsoluteFile().getParentFile(), "index-metrics.json");
+        try {
+            GeneratorMetrics.writeReport(report, reportFile);
+            getLog().info("Metrics report written to " + reportFile.getAbsolutePath());
+        } catch (RuntimeException e) {
+            getLog().warn("Failed to write metrics report to " + reportFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    private GithubClient createGithubClient(ResilientHttpClient httpClient) throws MojoFailureException {
+        return switch (githubApi) {
+            case "rest" -> SimpleGithubClient.withAccessToken(githubAccessToken, httpClient, createGithubResponseCache(), getLog());
+            case "graphql" -> GraphQlGithubClient.withAccessToken(githubAccessToken, httpClient, getLog());
+            default -> throw new MojoFailureException("Unknown Github API: " + githubApi + ". Available APIs: [rest, graphql]");
+        };
+    }
+
+    private HttpClientConfig createHttpClientConfig() {
+        return ImmutableHttpClientConfig.builder()
+                .isHttp2Preferred(httpPreferHttp2)
+                .connectTimeout(Duration.ofSeconds(httpConnectTimeoutSeconds))
+                .requestTimeout(Duration.ofSeconds(httpRequestTimeoutSeconds))
+                .build();
+    }
+
+    private UrlValidationCache createUrlValidationCache() {
+        if (urlValidationMaxAgeHours <= 0) {
+            return UrlValidationCache.disabled();
+        }
+
+        File cacheFile = new File(resolveCacheDirectory(), "url-validation.json");
+        return UrlValidationCache.load(cacheFile, Duration.ofHours(urlValidationMaxAgeHours), getLog());
+    }
+
+    private HttpResponseCache createGithubResponseCache() {
+        if (!githubResponseCache) {
+            return HttpResponseCache.disabled();
+        }
+
+        return HttpResponseCache.open(new File(resolveCacheDirectory(), "github"), getLog());
+    }
+
+    private GraalVmVersionCache createGraalVmVersionCache() {
+        if (!graalVmVersionCache) {
+            return GraalVmVersionCache.disabled();
+        }
+
+        return GraalVmVersionCache.load(new File(resolveCacheDirectory(), "graalvm-versions.json"), getLog());
+    }
+
+    private File resolveCacheDirectory() {
+        if (cacheDirectory != null) {
+            return cacheDirectory;
         }
+        return new File(indexFile.getAbsoluteFile().getParentFile(), ".index-cache");
     }
 
-    private Map<String, ToolsIndexDatasource> createDatasources(GithubClient githubClient) {
+    private Map<String, ToolsIndexDatasource> createDatasources(GithubClient githubClient, ResilientHttpClient httpClient) {
         Map<String, ToolsIndexDatasource> datasources = new LinkedHashMap<>();
         datasources.put("temurin", new TemurinVersionsDatasource(githubClient, getLog()));
-        datasources.put("graalvm", new GraalVmVersionsDatasource(githubClient, ResilientHttpClient.create(getLog()), getLog()));
-        datasources.put("nodejs", new NodeVersionsDatasource(getLog()));
-        datasources.put("maven", new MavenVersionsDatasource());
+        datasources.put("graalvm", new GraalVmVersionsDatasource(githubClient, httpClient, createGraalVmVersionCache(), getLog()));
+        datasources.put("nodejs", new NodeVersionsDatasource(httpClient, nodeReleaseIndex, nodeRecentVersionWindow, getLog()));
+        datasources.put("maven", new MavenVersionsDatasource(httpClient, mavenSkipUnchangedArchive));
         datasources.put("mvnd", new MavenDaemonVersionsDatasource(githubClient, getLog()));
         datasources.put("gradle", new GradleVersionsDatasource(githubClient, getLog()));
         datasources.put("clojure", new ClojureVersionsDatasource(githubClient, getLog()));
@@ -109,26 +363,43 @@ public class GenerateToolsIndexMojo extends AbstractMojo {
         return selected;
     }
 
+    /**
+     * Fetches from all datasources in parallel and merges every result as soon as its datasource completes,
+     * so that merging overlaps with the datasources still running.
+     */
     private ToolsIndexV2 fetchInParallel(Map<String, ToolsIndexDatasource> datasources, ToolsIndexV2 initialIndex)
             throws Exception {
+        ToolsIndexAccumulator accumulator = new ToolsIndexAccumulator();
+        accumulator.add(initialIndex);
+
         try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            List<Future<ToolsIndexV2>> futures = new ArrayList<>();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
             for (var entry : datasources.entrySet()) {
                 String name = entry.getKey();
                 ToolsIndexDatasource datasource = entry.getValue();
-                futures.add(executor.submit(() -> {
+                futures.add(CompletableFuture.supplyAsync(() -> {
                     getLog().info("Fetching " + name + " versions...");
-                    ToolsIndexV2 result = datasource.fetchToolVersions();
+                    ToolsIndexV2 result = datasource.fetchToolVersions(initialIndex);
                     getLog().info("Fetched " + name + " versions");
                     return result;
-                }));
+                }, executor).thenAccept(accumulator::add));
             }
 
-            return mergeResults(initialIndex, futures);
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
         }
+
+        return accumulator.freeze();
     }
 
-    private ToolsIndexV2 mergeResults(ToolsIndexV2 initialIndex, List<Future<ToolsIndexV2>> futures) throws Exception {
+    /**
+     * Merges the given indexes in order, entries of later indexes override equal entries of earlier ones.
+     */
+    static ToolsIndexV2 mergeIndexes(List<ToolsIndexV2> indexes) {
         // Start with empty maps to avoid sharing inner map references with previousIndex.
         // The initialIndex is merged as the first source, so all inner maps are freshly created.
         SortedMap<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> mergedJdkVersions =
@@ -146,14 +417,7 @@ public class GenerateToolsIndexMojo extends AbstractMojo {
         SortedMap<String, SortedMap<OperatingSystem, String>> mergedClojureVersions =
                 SortedCollections.createSemverSortedMap();
 
-        // Collect initialIndex + datasource results into a single list
-        List<ToolsIndexV2> allResults = new ArrayList<>();
-        allResults.add(initialIndex);
-        for (Future<ToolsIndexV2> future : futures) {
-            allResults.add(future.get());
-        }
-
-        for (ToolsIndexV2 result : allResults) {
+        for (ToolsIndexV2 result : indexes) {
             deepMergeJdkVersions(mergedJdkVersions, result.getJdkVersions());
             putAllIfNotNull(mergedJdkDistributionSynonyms, result.getJdkDistributionSynonyms());
             putAllIfNotNull(mergedGradleVersions, result.getGradleVersions());
@@ -174,6 +438,15 @@ public class GenerateToolsIndexMojo extends AbstractMojo {
                 .build();
     }
 
+    private static boolean haveJdkDistributionSynonymsChanged(ToolsIndexV2 previousIndex, ToolsIndexV2 toolsIndex) {
+        var previousSynonyms = previousIndex.getJdkDistributionSynonyms();
+        var currentSynonyms = toolsIndex.getJdkDistributionSynonyms();
+        if (previousSynonyms == null || previousSynonyms.isEmpty()) {
+            return currentSynonyms != null && !currentSynonyms.isEmpty();
+        }
+        return !previousSynonyms.equals(currentSynonyms);
+    }
+
     private ToolsIndexV2 readOrCreateToolsIndex() {
         if (indexFile.exists()) {
             return ToolIndexV2Parser.readFrom(indexFile);
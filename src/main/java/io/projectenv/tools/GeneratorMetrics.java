@@ -0,0 +1,128 @@
+package io.projectenv.tools;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.projectenv.tools.http.GsonAdaptersHostMetrics;
+import io.projectenv.tools.http.HostMetrics;
+import io.projectenv.tools.http.HttpMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Collects the timings of a generator run: the wall time of its phases and datasources. Together with the request
+ * statistics of the HTTP client, the results are logged as a table and written as a JSON report.
+ */
+public class GeneratorMetrics {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GsonAdaptersMetricsReport())
+            .registerTypeAdapterFactory(new GsonAdaptersDatasourceMetrics())
+            .registerTypeAdapterFactory(new GsonAdaptersHostMetrics())
+            .setPrettyPrinting()
+            .create();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, DatasourceMetrics> datasources = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns a datasource which records the wall time and the result size of every fetch of the given datasource.
+     */
+    public ToolsIndexDatasource instrument(String name, ToolsIndexDatasource datasource) {
+        return new ToolsIndexDatasource() {
+
+            @Override
+            public ToolsIndexV2 fetchToolVersions() {
+                long fetchStartNanos = System.nanoTime();
+                ToolsIndexV2 result = null;
+                try {
+                    result = datasource.fetchToolVersions();
+                    return result;
+                } finally {
+                    recordDatasource(name, fetchStartNanos, result);
+                }
+            }
+
+            @Override
+            public ToolsIndexV2 fetchToolVersions(ToolsIndexV2 previousIndex) {
+                long fetchStartNanos = System.nanoTime();
+                ToolsIndexV2 result = null;
+                try {
+                    result = datasource.fetchToolVersions(previousIndex);
+                    return result;
+                } finally {
+                    recordDatasource(name, fetchStartNanos, result);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Records the wall time of a phase which started at the given {@link System#nanoTime()} and ends now.
+     */
+    public void recordPhase(String name, long phaseStartNanos) {
+        phaseMillis.put(name, millisSince(phaseStartNanos));
+    }
+
+    public MetricsReport createReport(HttpMetrics httpMetrics) {
+        synchronized (phaseMillis) {
+            return ImmutableMetricsReport.builder()
+                    .wallTimeMillis(millisSince(startNanos))
+                    .phaseMillis(phaseMillis)
+                    .datasources(datasources)
+                    .hosts(httpMetrics.snapshot())
+                    .build();
+        }
+    }
+
+    public void logSummary(MetricsReport report, Log log) {
+        log.info("Run completed in " + report.getWallTimeMillis() + " ms, phases: " + report.getPhaseMillis());
+
+        log.info(String.format("%-12s %10s %8s %7s", "datasource", "time (ms)", "urls", "failed"));
+        for (var entry : report.getDatasources().entrySet()) {
+            DatasourceMetrics datasource = entry.getValue();
+            log.info(String.format("%-12s %10d %8d %7s", entry.getKey(),
+                    datasource.getWallTimeMillis(), datasource.getLeafCount(), datasource.isFailed() ? "yes" : "no"));
+        }
+
+        log.info(String.format("%-32s %8s %7s %8s %10s %12s %7s %7s %7s %7s", "host", "requests", "retries",
+                "failures", "wait (ms)", "bytes", "p50", "p90", "p99", "max"));
+        for (var entry : report.getHosts().entrySet()) {
+            HostMetrics host = entry.getValue();
+            log.info(String.format("%-32s %8d %7d %8d %10d %12d %7d %7d %7d %7d", entry.getKey(),
+                    host.getRequests(), host.getRetries(), host.getFailures(), host.getLimiterWaitMillis(),
+                    host.getBytesReceived(), host.getLatencyP50Millis(), host.getLatencyP90Millis(),
+                    host.getLatencyP99Millis(), host.getLatencyMaxMillis()));
+        }
+    }
+
+    public static void writeReport(MetricsReport report, File reportFile) {
+        try {
+            AtomicFiles.write(reportFile.toPath(), writer -> GSON.toJson(report, MetricsReport.class, writer));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void recordDatasource(String name, long fetchStartNanos, ToolsIndexV2 result) {
+        datasources.put(name, ImmutableDatasourceMetrics.builder()
+                .wallTimeMillis(millisSince(fetchStartNanos))
+                .leafCount(result != null ? ToolsIndexLeaves.flatten(result).size() : 0)
+                .isFailed(result == null)
+                .build());
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+}
@@ -0,0 +1,27 @@
+package io.projectenv.tools;
+
+import io.projectenv.tools.http.HostMetrics;
+import org.immutables.gson.Gson;
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+/**
+ * Timings and request statistics of a generator run, as written to the metrics report file.
+ */
+@Gson.TypeAdapters
+@Value.Immutable
+public interface MetricsReport {
+
+    long getWallTimeMillis();
+
+    /**
+     * Wall time of the phases of the run (e.g. fetch, validate, write), in the order they ran.
+     */
+    Map<String, Long> getPhaseMillis();
+
+    Map<String, DatasourceMetrics> getDatasources();
+
+    Map<String, HostMetrics> getHosts();
+
+}
@@ -9,6 +9,8 @@ import java.util.stream.Collector;
 
 public final class SortedCollections {
 
+    private static final String RC_SEPARATOR = "-rc-";
+
     private SortedCollections() {
         // noop
     }
@@ -95,26 +97,40 @@ public final class SortedCollections {
         return new TreeMap<>(SortedCollections::compareVersions);
     }
 
+    /**
+     * Compares two versions by their dot-separated numeric components, ignoring build metadata ({@code +...}).
+     * A version with an {@code -rc-} suffix is lower than the same version without one, and release candidates
+     * are ordered by their number. Components which are not numbers are treated as 0.
+     * <p>
+     * The versions are scanned in place, so comparing does not allocate.
+     */
     public static int compareVersions(String version1, String version2) {
-        // Remove build metadata (+...) for both versions
-        String v1 = version1.split("\\+")[0];
-        String v2 = version2.split("\\+")[0];
+        // Build metadata (+...) is ignored
+        int v1End = indexOfOrLength(version1, '+');
+        int v2End = indexOfOrLength(version2, '+');
 
         // Extract rc suffix if present
-        String[] v1Parts = v1.split("-rc-");
-        String[] v2Parts = v2.split("-rc-");
-        String v1Main = v1Parts[0];
-        String v2Main = v2Parts[0];
-        Integer v1Rc = v1Parts.length > 1 ? parseIntSafe(v1Parts[1]) : null;
-        Integer v2Rc = v2Parts.length > 1 ? parseIntSafe(v2Parts[1]) : null;
-
-        // Compare main version numbers
-        String[] v1Splits = v1Main.split("\\.");
-        String[] v2Splits = v2Main.split("\\.");
-        int maxLength = Math.max(v1Splits.length, v2Splits.length);
-        for (int i = 0; i < maxLength; i++) {
-            int n1 = i < v1Splits.length ? parseIntSafe(v1Splits[i]) : 0;
-            int n2 = i < v2Splits.length ? parseIntSafe(v2Splits[i]) : 0;
+        int v1RcIndex = version1.indexOf(RC_SEPARATOR);
+        int v2RcIndex = version2.indexOf(RC_SEPARATOR);
+        int v1MainEnd = v1RcIndex >= 0 && v1RcIndex < v1End ? v1RcIndex : v1End;
+        int v2MainEnd = v2RcIndex >= 0 && v2RcIndex < v2End ? v2RcIndex : v2End;
+
+        // Compare main version numbers, missing components are 0
+        int v1Position = 0;
+        int v2Position = 0;
+        while (v1Position <= v1MainEnd || v2Position <= v2MainEnd) {
+            int n1 = 0;
+            if (v1Position <= v1MainEnd) {
+                int componentEnd = indexOfOrEnd(version1, '.', v1Position, v1MainEnd);
+                n1 = parseIntSafe(version1, v1Position, componentEnd);
+                v1Position = componentEnd + 1;
+            }
+            int n2 = 0;
+            if (v2Position <= v2MainEnd) {
+                int componentEnd = indexOfOrEnd(version2, '.', v2Position, v2MainEnd);
+                n2 = parseIntSafe(version2, v2Position, componentEnd);
+                v2Position = componentEnd + 1;
+            }
             int cmp = Integer.compare(n1, n2);
             if (cmp != 0) {
                 return cmp;
@@ -122,12 +138,14 @@ public final class SortedCollections {
         }
 
         // If main versions are equal, handle rc suffix
-        if (v1Rc != null && v2Rc != null) {
-            return Integer.compare(v1Rc, v2Rc);
-        } else if (v1Rc != null) {
+        boolean v1HasRc = v1MainEnd < v1End && hasRcNumber(version1, v1MainEnd, v1End);
+        boolean v2HasRc = v2MainEnd < v2End && hasRcNumber(version2, v2MainEnd, v2End);
+        if (v1HasRc && v2HasRc) {
+            return Integer.compare(parseRcNumber(version1, v1MainEnd, v1End), parseRcNumber(version2, v2MainEnd, v2End));
+        } else if (v1HasRc) {
             // rc is lower precedence than final
             return -1;
-        } else if (v2Rc != null) {
+        } else if (v2HasRc) {
             return 1;
         }
 
@@ -135,12 +153,65 @@ public final class SortedCollections {
         return 0;
     }
 
-    private static int parseIntSafe(String s) {
-        try {
-            return Integer.parseInt(s);
-        } catch (NumberFormatException e) {
+    /**
+     * Returns whether anything but further rc separators follows the rc separator at the given index.
+     */
+    private static boolean hasRcNumber(String version, int rcIndex, int end) {
+        int position = rcIndex;
+        while (position < end && version.startsWith(RC_SEPARATOR, position) && position + RC_SEPARATOR.length() <= end) {
+            position += RC_SEPARATOR.length();
+        }
+        return position < end;
+    }
+
+    /**
+     * Parses the rc number, which ends at the next rc separator.
+     */
+    private static int parseRcNumber(String version, int rcIndex, int end) {
+        int start = rcIndex + RC_SEPARATOR.length();
+        int nextRcIndex = version.indexOf(RC_SEPARATOR, start);
+        return parseIntSafe(version, start, nextRcIndex >= 0 && nextRcIndex < end ? nextRcIndex : end);
+    }
+
+    private static int indexOfOrLength(String value, char character) {
+        int index = value.indexOf(character);
+        return index >= 0 ? index : value.length();
+    }
+
+    private static int indexOfOrEnd(String value, char character, int start, int end) {
+        int index = value.indexOf(character, start);
+        return index >= 0 && index < end ? index : end;
+    }
+
+    /**
+     * Parses the integer in the given range like {@link Integer#parseInt(String)},
+     * but returns 0 instead of failing if there is none.
+     */
+    private static int parseIntSafe(String value, int start, int end) {
+        boolean negative = false;
+        int position = start;
+        if (position < end && (value.charAt(position) == '-' || value.charAt(position) == '+')) {
+            negative = value.charAt(position) == '-';
+            position++;
+        }
+        if (position == end) {
             return 0;
         }
+
+        long result = 0;
+        for (; position < end; position++) {
+            int digit = Character.digit(value.charAt(position), 10);
+            if (digit < 0) {
+                return 0;
+            }
+            result = result * 10 + digit;
+            if (result > -(long) Integer.MIN_VALUE) {
+                return 0;
+            }
+        }
+
+        result = negative ? -result : result;
+        return result <= Integer.MAX_VALUE ? (int) result : 0;
     }
 
 }
\ No newline at end of file
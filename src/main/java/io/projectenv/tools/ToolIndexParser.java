@@ -4,8 +4,12 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 public final class ToolIndexParser {
 
@@ -23,7 +27,7 @@ public final class ToolIndexParser {
     }
 
     public static ToolsIndex readFrom(File toolsIndexFile) {
-        try (Reader reader = new FileReader(toolsIndexFile)) {
+        try (Reader reader = Files.newBufferedReader(toolsIndexFile.toPath(), StandardCharsets.UTF_8)) {
             return GSON.fromJson(reader, TOOLS_INDEX_TYPE);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -31,8 +35,8 @@ public final class ToolIndexParser {
     }
 
     public static void writeTo(ToolsIndex toolsIndex, File toolsIndexFile) {
-        try (Writer writer = new FileWriter(toolsIndexFile)) {
-            GSON.toJson(toolsIndex, TOOLS_INDEX_TYPE, writer);
+        try {
+            AtomicFiles.write(toolsIndexFile.toPath(), writer -> GSON.toJson(toolsIndex, TOOLS_INDEX_TYPE, writer));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
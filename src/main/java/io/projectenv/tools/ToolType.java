@@ -0,0 +1,25 @@
+package io.projectenv.tools;
+
+/**
+ * The tool sections of a {@link ToolsIndexV2}.
+ */
+public enum ToolType {
+
+    JDK("JDK"),
+    GRADLE("Gradle"),
+    MAVEN("Maven"),
+    MVND("mvnd"),
+    NODE("Node"),
+    CLOJURE("Clojure");
+
+    private final String displayName;
+
+    ToolType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+}
@@ -0,0 +1,74 @@
+package io.projectenv.tools;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Merges indexes as they arrive from concurrently running datasources, without locking.
+ * <p>
+ * Download URLs are kept in one concurrent skip list per {@link ToolType}, ordered like the maps of a
+ * {@link ToolsIndexV2}, so datasources of different tools never contend with each other. Like
+ * {@link GenerateToolsIndexMojo#mergeIndexes}, later entries override equal entries added before. Since the
+ * datasources produce disjoint entries, their results may be added in any order once the previous index was added.
+ */
+public class ToolsIndexAccumulator {
+
+    private static final Comparator<ToolsIndexLeaf.Key> KEY_ORDER = Comparator
+            .comparing(ToolsIndexLeaf.Key::distribution, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(ToolsIndexLeaf.Key::version, SortedCollections::compareVersions)
+            .thenComparing(ToolsIndexLeaf.Key::operatingSystem, Comparator.nullsFirst(Comparator.<OperatingSystem>naturalOrder()))
+            .thenComparing(ToolsIndexLeaf.Key::cpuArchitecture, Comparator.nullsFirst(Comparator.<CpuArchitecture>naturalOrder()));
+
+    private final Map<ToolType, ConcurrentNavigableMap<ToolsIndexLeaf.Key, String>> urlsByTool = new EnumMap<>(ToolType.class);
+    private final ConcurrentMap<String, SortedSet<String>> jdkDistributionSynonyms = new ConcurrentHashMap<>();
+
+    public ToolsIndexAccumulator() {
+        for (ToolType tool : ToolType.values()) {
+            urlsByTool.put(tool, new ConcurrentSkipListMap<>(KEY_ORDER));
+        }
+    }
+
+    /**
+     * Adds all entries of the given index. May be called concurrently.
+     */
+    public void add(ToolsIndexV2 toolsIndex) {
+        for (ToolsIndexLeaf leaf : ToolsIndexLeaves.flatten(toolsIndex)) {
+            add(leaf);
+        }
+
+        addJdkDistributionSynonyms(toolsIndex.getJdkDistributionSynonyms());
+    }
+
+    public void add(ToolsIndexLeaf leaf) {
+        urlsByTool.get(leaf.key().tool()).put(leaf.key(), leaf.url());
+    }
+
+    public void addJdkDistributionSynonyms(Map<String, SortedSet<String>> synonyms) {
+        if (synonyms != null) {
+            jdkDistributionSynonyms.putAll(synonyms);
+        }
+    }
+
+    /**
+     * Builds the merged index from the entries added so far.
+     */
+    public ToolsIndexV2 freeze() {
+        List<ToolsIndexLeaf> leaves = new ArrayList<>();
+        for (var urls : urlsByTool.values()) {
+            urls.forEach((key, url) -> leaves.add(new ToolsIndexLeaf(key, url)));
+        }
+
+        SortedMap<String, SortedSet<String>> synonyms = SortedCollections.createNaturallySortedMap(jdkDistributionSynonyms);
+        return ToolsIndexLeaves.assemble(leaves, synonyms);
+    }
+
+}
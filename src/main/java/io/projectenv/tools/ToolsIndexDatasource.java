@@ -8,4 +8,12 @@ public interface ToolsIndexDatasource {
 
     ToolsIndexV2 fetchToolVersions();
 
+    /**
+     * Fetches the tool versions, knowing the index of the previous run. Datasources of tools whose published
+     * releases never change can serve versions from the previous index instead of fetching them again.
+     */
+    default ToolsIndexV2 fetchToolVersions(ToolsIndexV2 previousIndex) {
+        return fetchToolVersions();
+    }
+
 }
@@ -0,0 +1,33 @@
+package io.projectenv.tools;
+
+/**
+ * A single download URL of a {@link ToolsIndexV2} together with the keys leading to it.
+ * Keys which do not exist for a tool (e.g. the distribution of a Gradle version) are {@code null}.
+ */
+public record ToolsIndexLeaf(Key key, String url) {
+
+    public record Key(ToolType tool,
+                      String distribution,
+                      String version,
+                      OperatingSystem operatingSystem,
+                      CpuArchitecture cpuArchitecture) {
+
+        @Override
+        public String toString() {
+            var description = new StringBuilder(tool.getDisplayName());
+            if (distribution != null) {
+                description.append(' ').append(distribution);
+            }
+            description.append(' ').append(version);
+            if (operatingSystem != null) {
+                description.append(' ').append(operatingSystem);
+            }
+            if (cpuArchitecture != null) {
+                description.append('/').append(cpuArchitecture);
+            }
+            return description.toString();
+        }
+
+    }
+
+}
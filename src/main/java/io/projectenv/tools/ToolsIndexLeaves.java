@@ -0,0 +1,141 @@
+package io.projectenv.tools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Converts between the nested map structure of a {@link ToolsIndexV2} and a flat list of
+ * {@link ToolsIndexLeaf leaves}, one per download URL.
+ */
+public final class ToolsIndexLeaves {
+
+    private ToolsIndexLeaves() {
+        // noop
+    }
+
+    public static List<ToolsIndexLeaf> flatten(ToolsIndexV2 toolsIndex) {
+        List<ToolsIndexLeaf> leaves = new ArrayList<>();
+
+        for (var distributionEntry : nullToEmpty(toolsIndex.getJdkVersions()).entrySet()) {
+            for (var versionEntry : distributionEntry.getValue().entrySet()) {
+                addVersionOsCpuLeaves(leaves, ToolType.JDK, distributionEntry.getKey(), versionEntry.getKey(), versionEntry.getValue());
+            }
+        }
+
+        for (var versionEntry : nullToEmpty(toolsIndex.getGradleVersions()).entrySet()) {
+            leaves.add(leaf(ToolType.GRADLE, null, versionEntry.getKey(), null, null, versionEntry.getValue()));
+        }
+
+        for (var versionEntry : nullToEmpty(toolsIndex.getMavenVersions()).entrySet()) {
+            leaves.add(leaf(ToolType.MAVEN, null, versionEntry.getKey(), null, null, versionEntry.getValue()));
+        }
+
+        for (var versionEntry : nullToEmpty(toolsIndex.getMvndVersions()).entrySet()) {
+            addVersionOsCpuLeaves(leaves, ToolType.MVND, null, versionEntry.getKey(), versionEntry.getValue());
+        }
+
+        for (var versionEntry : nullToEmpty(toolsIndex.getNodeVersions()).entrySet()) {
+            addVersionOsCpuLeaves(leaves, ToolType.NODE, null, versionEntry.getKey(), versionEntry.getValue());
+        }
+
+        for (var versionEntry : nullToEmpty(toolsIndex.getClojureVersions()).entrySet()) {
+            for (var osEntry : versionEntry.getValue().entrySet()) {
+                leaves.add(leaf(ToolType.CLOJURE, null, versionEntry.getKey(), osEntry.getKey(), null, osEntry.getValue()));
+            }
+        }
+
+        return leaves;
+    }
+
+    public static Map<ToolsIndexLeaf.Key, String> toMap(ToolsIndexV2 toolsIndex) {
+        Map<ToolsIndexLeaf.Key, String> urlsByKey = new HashMap<>();
+        for (ToolsIndexLeaf leaf : flatten(toolsIndex)) {
+            urlsByKey.put(leaf.key(), leaf.url());
+        }
+        return urlsByKey;
+    }
+
+    /**
+     * Returns the leaves of {@code currentIndex} which do not exist in {@code previousIndex}
+     * or point to a different URL there.
+     */
+    public static List<ToolsIndexLeaf> changedLeaves(ToolsIndexV2 previousIndex, ToolsIndexV2 currentIndex) {
+        Map<ToolsIndexLeaf.Key, String> previousUrls = toMap(previousIndex);
+
+        return flatten(currentIndex)
+                .stream()
+                .filter(leaf -> !leaf.url().equals(previousUrls.get(leaf.key())))
+                .toList();
+    }
+
+    public static ToolsIndexV2 assemble(Collection<ToolsIndexLeaf> leaves, SortedMap<String, SortedSet<String>> jdkDistributionSynonyms) {
+        SortedMap<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> jdkVersions = SortedCollections.createNaturallySortedMap();
+        SortedMap<String, String> gradleVersions = SortedCollections.createSemverSortedMap();
+        SortedMap<String, String> mavenVersions = SortedCollections.createSemverSortedMap();
+        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> mvndVersions = SortedCollections.createSemverSortedMap();
+        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> nodeVersions = SortedCollections.createSemverSortedMap();
+        SortedMap<String, SortedMap<OperatingSystem, String>> clojureVersions = SortedCollections.createSemverSortedMap();
+
+        for (ToolsIndexLeaf leaf : leaves) {
+            var key = leaf.key();
+            switch (key.tool()) {
+                case JDK -> jdkVersions
+                        .computeIfAbsent(key.distribution(), k -> SortedCollections.createSemverSortedMap())
+                        .computeIfAbsent(key.version(), k -> SortedCollections.createNaturallySortedMap())
+                        .computeIfAbsent(key.operatingSystem(), k -> SortedCollections.createNaturallySortedMap())
+                        .put(key.cpuArchitecture(), leaf.url());
+                case GRADLE -> gradleVersions.put(key.version(), leaf.url());
+                case MAVEN -> mavenVersions.put(key.version(), leaf.url());
+                case MVND -> mvndVersions
+                        .computeIfAbsent(key.version(), k -> SortedCollections.createNaturallySortedMap())
+                        .computeIfAbsent(key.operatingSystem(), k -> SortedCollections.createNaturallySortedMap())
+                        .put(key.cpuArchitecture(), leaf.url());
+                case NODE -> nodeVersions
+                        .computeIfAbsent(key.version(), k -> SortedCollections.createNaturallySortedMap())
+                        .computeIfAbsent(key.operatingSystem(), k -> SortedCollections.createNaturallySortedMap())
+                        .put(key.cpuArchitecture(), leaf.url());
+                case CLOJURE -> clojureVersions
+                        .computeIfAbsent(key.version(), k -> SortedCollections.createNaturallySortedMap())
+                        .put(key.operatingSystem(), leaf.url());
+            }
+        }
+
+        return ImmutableToolsIndexV2.builder()
+                .jdkVersions(jdkVersions)
+                .jdkDistributionSynonyms(nullToEmpty(jdkDistributionSynonyms))
+                .gradleVersions(gradleVersions)
+                .mavenVersions(mavenVersions)
+                .mvndVersions(mvndVersions)
+                .nodeVersions(nodeVersions)
+                .clojureVersions(clojureVersions)
+                .build();
+    }
+
+    private static void addVersionOsCpuLeaves(List<ToolsIndexLeaf> leaves,
+                                              ToolType tool,
+                                              String distribution,
+                                              String version,
+                                              Map<OperatingSystem, SortedMap<CpuArchitecture, String>> osMap) {
+        for (var osEntry : osMap.entrySet()) {
+            for (var cpuEntry : osEntry.getValue().entrySet()) {
+                leaves.add(leaf(tool, distribution, version, osEntry.getKey(), cpuEntry.getKey(), cpuEntry.getValue()));
+            }
+        }
+    }
+
+    private static ToolsIndexLeaf leaf(ToolType tool, String distribution, String version,
+                                       OperatingSystem operatingSystem, CpuArchitecture cpuArchitecture, String url) {
+        return new ToolsIndexLeaf(new ToolsIndexLeaf.Key(tool, distribution, version, operatingSystem, cpuArchitecture), url);
+    }
+
+    private static <K, V> SortedMap<K, V> nullToEmpty(SortedMap<K, V> map) {
+        return map != null ? map : Collections.emptySortedMap();
+    }
+
+}
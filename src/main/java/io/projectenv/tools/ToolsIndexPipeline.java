@@ -0,0 +1,187 @@
+package io.projectenv.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Fetches and validates the tools index in one pipeline, so that URL validation starts as soon as
+ * the first datasource completes instead of after all of them.
+ * <p>
+ * Every datasource emits the leaves of its result into a bounded queue, validator workers take the leaves from
+ * there and pass the ones to keep on to a single assembler, which merges them into the previous index.
+ * The bounded queues make datasources wait for the validators instead of buffering whole results.
+ */
+public class ToolsIndexPipeline {
+
+    public record Result(ToolsIndexV2 toolsIndex, int validatedLeafCount) {
+    }
+
+    private record PendingLeaf(ToolsIndexLeaf leaf, boolean existedBefore, boolean assemble) {
+    }
+
+    private static final PendingLeaf END = new PendingLeaf(null, false, false);
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Number of leaves validated at the same time. The per-host limits of the HTTP client
+     * decide how many requests are actually sent.
+     */
+    private static final int VALIDATOR_COUNT = 256;
+
+    private final DownloadUrlValidator validator;
+    private final Log log;
+
+    public ToolsIndexPipeline(DownloadUrlValidator validator, Log log) {
+        this.validator = validator;
+        this.log = log;
+    }
+
+    /**
+     * Runs the datasources and validates their leaves like {@link DownloadUrlValidator#validateUrls}: leaves whose
+     * keys exist in the previous index are kept even if their URL is invalid, new leaves only if it is valid.
+     *
+     * @param incremental if enabled, only leaves which are new or changed compared to the previous index are
+     *                    validated, otherwise the leaves of the previous index are validated as well
+     */
+    public Result run(Map<String, ToolsIndexDatasource> datasources, ToolsIndexV2 previousIndex, boolean incremental)
+            throws Exception {
+        Map<ToolsIndexLeaf.Key, String> previousUrls = ToolsIndexLeaves.toMap(previousIndex);
+
+        ToolsIndexAccumulator accumulator = new ToolsIndexAccumulator();
+        accumulator.add(previousIndex);
+
+        BlockingQueue<PendingLeaf> pendingLeaves = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<PendingLeaf> keptLeaves = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicInteger validatedLeafCount = new AtomicInteger();
+        AtomicReference<RuntimeException> validationFailure = new AtomicReference<>();
+        DownloadUrlValidator.ValidationRun validationRun = validator.startRun();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> producers = new ArrayList<>();
+            if (!incremental) {
+                producers.add(executor.submit(() -> {
+                    // Already part of the index, validated for the warnings and the validation cache only
+                    for (ToolsIndexLeaf leaf : ToolsIndexLeaves.flatten(previousIndex)) {
+                        pendingLeaves.put(new PendingLeaf(leaf, true, false));
+                    }
+                    return null;
+                }));
+            }
+            for (var entry : datasources.entrySet()) {
+                String name = entry.getKey();
+                ToolsIndexDatasource datasource = entry.getValue();
+                producers.add(executor.submit(() -> {
+                    log.info("Fetching " + name + " versions...");
+                    ToolsIndexV2 result = datasource.fetchToolVersions(previousIndex);
+                    log.info("Fetched " + name + " versions");
+
+                    accumulator.addJdkDistributionSynonyms(result.getJdkDistributionSynonyms());
+                    for (ToolsIndexLeaf leaf : ToolsIndexLeaves.flatten(result)) {
+                        String previousUrl = previousUrls.get(leaf.key());
+                        if (!incremental || !leaf.url().equals(previousUrl)) {
+                            pendingLeaves.put(new PendingLeaf(leaf, previousUrl != null, true));
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<?>> validators = new ArrayList<>();
+            for (int i = 0; i < VALIDATOR_COUNT; i++) {
+                validators.add(executor.submit(() -> {
+                    PendingLeaf pendingLeaf;
+                    while ((pendingLeaf = pendingLeaves.take()) != END) {
+                        if (pendingLeaf.assemble()) {
+                            validatedLeafCount.incrementAndGet();
+                        }
+                        try {
+                            if (validationRun.isKept(pendingLeaf.leaf(), pendingLeaf.existedBefore()) && pendingLeaf.assemble()) {
+                                keptLeaves.put(pendingLeaf);
+                            }
+                        } catch (RuntimeException e) {
+                            // Keep taking leaves, so that the datasources do not block on the full queue
+                            validationFailure.compareAndSet(null, e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            Future<?> producersDone = executor.submit(() -> {
+                try {
+                    awaitAll(producers);
+                } finally {
+                    for (int i = 0; i < VALIDATOR_COUNT; i++) {
+                        pendingLeaves.put(END);
+                    }
+                }
+                return null;
+            });
+            Future<?> validatorsDone = executor.submit(() -> {
+                try {
+                    awaitAll(validators);
+                } finally {
+                    keptLeaves.put(END);
+                }
+                return null;
+            });
+
+            PendingLeaf keptLeaf;
+            while ((keptLeaf = keptLeaves.take()) != END) {
+                accumulator.add(keptLeaf.leaf());
+            }
+
+            producersDone.get();
+            validatorsDone.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof ExecutionException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+
+        if (validationFailure.get() != null) {
+            throw new RuntimeException("URL validation failed", validationFailure.get());
+        }
+
+        validationRun.logSummary();
+
+        return new Result(accumulator.freeze(), validatedLeafCount.get());
+    }
+
+    /**
+     * Waits for all futures, even if some of them fail, and rethrows the first failure.
+     */
+    private static void awaitAll(List<Future<?>> futures) throws ExecutionException, InterruptedException {
+        ExecutionException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package io.projectenv.tools;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Writes a {@link ToolsIndexV2} and its legacy {@link ToolsIndex} representation in a single pass over the index,
+ * without building the legacy index through {@link ToolsIndexV2#toLegacyToolsIndex()} first.
+ * <p>
+ * The output is identical to the one of {@link ToolIndexV2Parser#writeTo} and {@link ToolIndexParser#writeTo}.
+ */
+public final class ToolsIndexWriter {
+
+    private static final Gson GSON = new GsonBuilder()
+            .setPrettyPrinting()
+            .create();
+
+    private ToolsIndexWriter() {
+        // noop
+    }
+
+    public static void writeTo(ToolsIndexV2 toolsIndex, File toolsIndexFile, File legacyToolsIndexFile) {
+        try {
+            AtomicFiles.write(toolsIndexFile.toPath(), writer ->
+                    AtomicFiles.write(legacyToolsIndexFile.toPath(), legacyWriter -> {
+                        try (JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+                             JsonWriter legacyJsonWriter = GSON.newJsonWriter(legacyWriter)) {
+                            write(toolsIndex, jsonWriter, legacyJsonWriter);
+                        }
+                    }));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void write(ToolsIndexV2 toolsIndex, JsonWriter writer, JsonWriter legacyWriter) throws IOException {
+        writer.beginObject();
+        legacyWriter.beginObject();
+
+        writer.name("jdkVersions");
+        legacyWriter.name("jdkVersions");
+        writeJdkVersions(toolsIndex.getJdkVersions(), writer, legacyWriter);
+
+        if (toolsIndex.getJdkDistributionSynonyms() != null) {
+            writer.name("jdkDistributionSynonyms");
+            legacyWriter.name("jdkDistributionSynonyms");
+            writeJdkDistributionSynonyms(toolsIndex.getJdkDistributionSynonyms(), writer, legacyWriter);
+        }
+
+        if (toolsIndex.getGradleVersions() != null) {
+            writer.name("gradleVersions");
+            legacyWriter.name("gradleVersions");
+            writeVersionUrls(toolsIndex.getGradleVersions(), writer, legacyWriter);
+        }
+
+        if (toolsIndex.getMavenVersions() != null) {
+            writer.name("mavenVersions");
+            legacyWriter.name("mavenVersions");
+            writeVersionUrls(toolsIndex.getMavenVersions(), writer, legacyWriter);
+        }
+
+        writer.name("mvndVersions");
+        legacyWriter.name("mvndVersions");
+        writeVersionOsCpuUrls(toolsIndex.getMvndVersions(), writer, legacyWriter);
+
+        writer.name("nodeVersions");
+        legacyWriter.name("nodeVersions");
+        writeVersionOsCpuUrls(toolsIndex.getNodeVersions(), writer, legacyWriter);
+
+        // Clojure versions are not part of the legacy index
+        if (toolsIndex.getClojureVersions() != null) {
+            writer.name("clojureVersions");
+            writer.beginObject();
+            for (var versionEntry : toolsIndex.getClojureVersions().entrySet()) {
+                writer.name(versionEntry.getKey());
+                writer.beginObject();
+                for (var osEntry : versionEntry.getValue().entrySet()) {
+                    writer.name(toJsonName(osEntry.getKey())).value(osEntry.getValue());
+                }
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+
+        writer.endObject();
+        legacyWriter.endObject();
+    }
+
+    private static void writeJdkVersions(SortedMap<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> jdkVersions,
+                                         JsonWriter writer, JsonWriter legacyWriter) throws IOException {
+        writer.beginObject();
+        legacyWriter.beginObject();
+        if (jdkVersions != null) {
+            for (var distributionEntry : jdkVersions.entrySet()) {
+                writer.name(distributionEntry.getKey());
+
+                // The legacy index only contains distributions which have at least one AMD64 download
+                boolean hasLegacyEntries = distributionEntry.getValue().values().stream().anyMatch(ToolsIndexWriter::hasLegacyEntries);
+                if (hasLegacyEntries) {
+                    legacyWriter.name(distributionEntry.getKey());
+                }
+
+                writeVersionOsCpuUrls(distributionEntry.getValue(), writer, hasLegacyEntries ? legacyWriter : null);
+            }
+        }
+        writer.endObject();
+        legacyWriter.endObject();
+    }
+
+    /**
+     * Writes version -> OS -> CPU -> URL to the given writer, and version -> OS -> URL of the
+     * AMD64 downloads to the legacy writer, if one is given.
+     */
+    private static void writeVersionOsCpuUrls(SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> versions,
+                                              JsonWriter writer, JsonWriter legacyWriter) throws IOException {
+        writer.beginObject();
+        if (legacyWriter != null) {
+            legacyWriter.beginObject();
+        }
+
+        if (versions != null) {
+            for (var versionEntry : versions.entrySet()) {
+                writer.name(versionEntry.getKey());
+                writer.beginObject();
+
+                boolean hasLegacyEntries = legacyWriter != null && hasLegacyEntries(versionEntry.getValue());
+                if (hasLegacyEntries) {
+                    legacyWriter.name(versionEntry.getKey());
+                    legacyWriter.beginObject();
+                }
+
+                for (var osEntry : versionEntry.getValue().entrySet()) {
+                    writer.name(toJsonName(osEntry.getKey()));
+                    writer.beginObject();
+                    for (var cpuEntry : osEntry.getValue().entrySet()) {
+                        writer.name(toJsonName(cpuEntry.getKey())).value(cpuEntry.getValue());
+                    }
+                    writer.endObject();
+
+                    String legacyUrl = osEntry.getValue().get(CpuArchitecture.AMD64);
+                    if (hasLegacyEntries && legacyUrl != null) {
+                        legacyWriter.name(toJsonName(osEntry.getKey())).value(legacyUrl);
+                    }
+                }
+
+                writer.endObject();
+                if (hasLegacyEntries) {
+                    legacyWriter.endObject();
+                }
+            }
+        }
+
+        writer.endObject();
+        if (legacyWriter != null) {
+            legacyWriter.endObject();
+        }
+    }
+
+    private static void writeJdkDistributionSynonyms(SortedMap<String, SortedSet<String>> jdkDistributionSynonyms,
+                                                     JsonWriter writer, JsonWriter legacyWriter) throws IOException {
+        writer.beginObject();
+        legacyWriter.beginObject();
+        for (var entry : jdkDistributionSynonyms.entrySet()) {
+            writer.name(entry.getKey()).beginArray();
+            legacyWriter.name(entry.getKey()).beginArray();
+            for (String synonym : entry.getValue()) {
+                writer.value(synonym);
+                legacyWriter.value(synonym);
+            }
+            writer.endArray();
+            legacyWriter.endArray();
+        }
+        writer.endObject();
+        legacyWriter.endObject();
+    }
+
+    private static void writeVersionUrls(SortedMap<String, String> versions, JsonWriter writer, JsonWriter legacyWriter) throws IOException {
+        writer.beginObject();
+        legacyWriter.beginObject();
+        for (var entry : versions.entrySet()) {
+            writer.name(entry.getKey()).value(entry.getValue());
+            legacyWriter.name(entry.getKey()).value(entry.getValue());
+        }
+        writer.endObject();
+        legacyWriter.endObject();
+    }
+
+    private static boolean hasLegacyEntries(Map<OperatingSystem, SortedMap<CpuArchitecture, String>> operatingSystems) {
+        return operatingSystems.values().stream().anyMatch(cpuArchitectures -> cpuArchitectures.containsKey(CpuArchitecture.AMD64));
+    }
+
+    private static String toJsonName(Enum<?> value) {
+        // matches the @SerializedName of OperatingSystem and CpuArchitecture
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+}
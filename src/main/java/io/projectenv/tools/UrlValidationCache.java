@@ -0,0 +1,127 @@
+package io.projectenv.tools;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * On-disk cache of download URL validation results, shared between generator runs.
+ * <p>
+ * Successful results younger than the configured maximum age are trusted without contacting
+ * the remote host. Older entries keep their {@code ETag} and {@code Last-Modified} values so
+ * that they can be revalidated with a conditional request.
+ */
+public class UrlValidationCache {
+
+    private static final Type ENTRIES_TYPE = new TypeToken<Map<String, UrlValidationCacheEntry>>() {
+    }.getType();
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GsonAdaptersUrlValidationCacheEntry())
+            .create();
+
+    /**
+     * Entries that have not been refreshed for this many times the maximum age are dropped on save.
+     */
+    private static final int RETENTION_FACTOR = 4;
+
+    private final File cacheFile;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final ConcurrentMap<String, UrlValidationCacheEntry> entries;
+
+    private UrlValidationCache(File cacheFile, Duration maxAge, Clock clock, Map<String, UrlValidationCacheEntry> entries) {
+        this.cacheFile = cacheFile;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    public static UrlValidationCache load(File cacheFile, Duration maxAge, Log log) {
+        Map<String, UrlValidationCacheEntry> entries = Map.of();
+        if (cacheFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+                Map<String, UrlValidationCacheEntry> storedEntries = GSON.fromJson(reader, ENTRIES_TYPE);
+                if (storedEntries != null) {
+                    entries = storedEntries;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable URL validation cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+
+        log.debug("Loaded " + entries.size() + " URL validation cache entries from " + cacheFile);
+        return new UrlValidationCache(cacheFile, maxAge, Clock.systemUTC(), entries);
+    }
+
+    /**
+     * Creates a cache which never trusts previous results and is not persisted.
+     */
+    public static UrlValidationCache disabled() {
+        return new UrlValidationCache(null, Duration.ZERO, Clock.systemUTC(), Map.of());
+    }
+
+    public Optional<UrlValidationCacheEntry> get(String url) {
+        return Optional.ofNullable(entries.get(url));
+    }
+
+    /**
+     * Returns whether a successful result can be reused without contacting the remote host.
+     * The maximum age is scaled per URL into the range [50%, 100%], so that URLs first seen
+     * in the same run do not all expire in the same later run.
+     */
+    public boolean isFresh(String url, UrlValidationCacheEntry entry) {
+        if (!entry.isValid() || maxAge.isZero()) {
+            return false;
+        }
+
+        long spread = (url.hashCode() & 0xffff) * (maxAge.toMillis() / 2) / 0xffff;
+        long effectiveMaxAge = maxAge.toMillis() / 2 + spread;
+
+        return clock.millis() - entry.getCheckedAt() < effectiveMaxAge;
+    }
+
+    public void put(String url, int statusCode, String entityTag, String lastModified) {
+        entries.put(url, ImmutableUrlValidationCacheEntry.builder()
+                .statusCode(statusCode)
+                .checkedAt(clock.millis())
+                .entityTag(Optional.ofNullable(entityTag))
+                .lastModified(Optional.ofNullable(lastModified))
+                .build());
+    }
+
+    public void touch(String url, UrlValidationCacheEntry entry) {
+        entries.put(url, ImmutableUrlValidationCacheEntry.copyOf(entry).withCheckedAt(clock.millis()));
+    }
+
+    public void save() {
+        if (cacheFile == null) {
+            return;
+        }
+
+        long oldestRetained = clock.millis() - maxAge.toMillis() * RETENTION_FACTOR;
+        entries.values().removeIf(entry -> entry.getCheckedAt() < oldestRetained);
+
+        try {
+            AtomicFiles.write(cacheFile.toPath(), writer -> GSON.toJson(Map.copyOf(entries), ENTRIES_TYPE, writer));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package io.projectenv.tools;
+
+import org.immutables.gson.Gson;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+@Gson.TypeAdapters
+@Value.Immutable
+public interface UrlValidationCacheEntry {
+
+    int getStatusCode();
+
+    /**
+     * Epoch milliseconds of the last time the URL was checked against the remote host.
+     */
+    long getCheckedAt();
+
+    Optional<String> getEntityTag();
+
+    Optional<String> getLastModified();
+
+    default boolean isValid() {
+        return getStatusCode() >= 200 && getStatusCode() < 300;
+    }
+
+}
@@ -13,6 +13,7 @@ import org.apache.maven.plugin.logging.Log;
 public class ClojureVersionsDatasource implements ToolsIndexDatasource {
 
     private static final Pattern VERSION_PATTERN = Pattern.compile("^(\\d+\\.\\d+\\.\\d+.\\d+)$");
+    private static final String ASSET_NAME_PREFIX = "clojure-tools";
 
     private final GithubClient githubClient;
     private final Log log;
@@ -26,7 +27,7 @@ public class ClojureVersionsDatasource implements ToolsIndexDatasource {
     public ToolsIndexV2 fetchToolVersions() {
         SortedMap<String, SortedMap<OperatingSystem, String>> clojureVersions = SortedCollections.createSemverSortedMap();
 
-        for (Release release : githubClient.getReleases("clojure", "brew-install")) {
+        for (Release release : githubClient.getReleases("clojure", "brew-install", assetName -> assetName.startsWith(ASSET_NAME_PREFIX))) {
             String tag = release.getTagName();
             Matcher matcher = VERSION_PATTERN.matcher(tag);
             if (!matcher.find()) {
@@ -1,10 +1,38 @@
 package io.projectenv.tools.github;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public interface GithubClient {
 
-    List<Release> getReleases(String owner, String repo);
+    default List<Release> getReleases(String owner, String repo) {
+        return getReleases(owner, repo, assetName -> true);
+    }
+
+    /**
+     * Returns the releases of a repository, only including the assets whose name matches the given filter.
+     * Assets which do not match are skipped while decoding the response.
+     */
+    List<Release> getReleases(String owner, String repo, Predicate<String> assetNameFilter);
+
+    default Map<String, List<Release>> getReleases(String owner, Collection<String> repos) {
+        return getReleases(owner, repos, assetName -> true);
+    }
+
+    /**
+     * Returns the releases of several repositories of the same owner, keyed by repository name
+     * in the order of the given repositories.
+     */
+    default Map<String, List<Release>> getReleases(String owner, Collection<String> repos, Predicate<String> assetNameFilter) {
+        Map<String, List<Release>> releases = new LinkedHashMap<>();
+        for (String repo : repos) {
+            releases.put(repo, getReleases(owner, repo, assetNameFilter));
+        }
+        return releases;
+    }
 
     List<Repository> getRepositories(String owner);
 
@@ -0,0 +1,293 @@
+package io.projectenv.tools.github.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.projectenv.tools.github.*;
+import io.projectenv.tools.http.ResilientHttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Predicate;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Github client based on the GraphQL API, which only transfers the release fields needed by the datasources.
+ * <p>
+ * Releases of several repositories are fetched with aliased queries, paging through the releases
+ * of all repositories of a batch at once. Releases with more assets than fit into one page are
+ * completed with follow-up queries, which are batched the same way.
+ */
+public class GraphQlGithubClient implements GithubClient {
+
+    private static final String GRAPHQL_API_URL = "https://api.github.com/graphql";
+    private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+
+    private static final int RELEASES_PER_PAGE = 50;
+    private static final int ASSETS_PER_PAGE = 100;
+    private static final int REPOSITORIES_PER_PAGE = 100;
+    private static final int ALIASES_PER_QUERY = 10;
+
+    private static final String PAGE_INFO_FIELDS = "pageInfo { hasNextPage endCursor }";
+    private static final String ASSET_CONNECTION_FIELDS = PAGE_INFO_FIELDS + " nodes { name downloadUrl }";
+
+    private final String authorizationHeader;
+    private final ResilientHttpClient httpClient;
+    private final Log log;
+
+    private GraphQlGithubClient(String authorizationHeader, ResilientHttpClient httpClient, Log log) {
+        this.authorizationHeader = authorizationHeader;
+        this.httpClient = httpClient;
+        this.log = log;
+    }
+
+    public static GraphQlGithubClient withAccessToken(String accessToken, ResilientHttpClient httpClient, Log log) {
+        var authorizationHeader = "Bearer " + accessToken;
+        return new GraphQlGithubClient(authorizationHeader, httpClient, log);
+    }
+
+    @Override
+    public List<Release> getReleases(String owner, String repo, Predicate<String> assetNameFilter) {
+        return getReleases(owner, List.of(repo), assetNameFilter).get(repo);
+    }
+
+    @Override
+    public Map<String, List<Release>> getReleases(String owner, Collection<String> repos, Predicate<String> assetNameFilter) {
+        Map<String, List<ReleaseState>> releaseStates = new LinkedHashMap<>();
+        for (String repo : repos) {
+            releaseStates.put(repo, new ArrayList<>());
+        }
+
+        List<String> repoList = List.copyOf(releaseStates.keySet());
+        for (int index = 0; index < repoList.size(); index += ALIASES_PER_QUERY) {
+            fetchReleases(owner, repoList.subList(index, Math.min(index + ALIASES_PER_QUERY, repoList.size())), assetNameFilter, releaseStates);
+        }
+
+        List<ReleaseState> incompleteReleases = releaseStates.values()
+                .stream()
+                .flatMap(List::stream)
+                .filter(releaseState -> releaseState.assetsCursor != null)
+                .toList();
+        for (int index = 0; index < incompleteReleases.size(); index += ALIASES_PER_QUERY) {
+            fetchRemainingAssets(owner, incompleteReleases.subList(index, Math.min(index + ALIASES_PER_QUERY, incompleteReleases.size())));
+        }
+
+        Map<String, List<Release>> releases = new LinkedHashMap<>();
+        for (var entry : releaseStates.entrySet()) {
+            releases.put(entry.getKey(), entry.getValue().stream().map(ReleaseState::toRelease).toList());
+        }
+        return releases;
+    }
+
+    @Override
+    public List<Repository> getRepositories(String owner) {
+        List<Repository> repositories = new ArrayList<>();
+
+        String cursor = null;
+        do {
+            String query = "query { organization(login: " + literal(owner) + ") { repositories(first: " + REPOSITORIES_PER_PAGE + afterArgument(cursor) + ") { "
+                    + PAGE_INFO_FIELDS + " nodes { name } } } }";
+
+            JsonObject connection = requireObject(callApi(query), "organization", owner).getAsJsonObject("repositories");
+            for (JsonElement node : connection.getAsJsonArray("nodes")) {
+                repositories.add(ImmutableRepository.builder()
+                        .name(node.getAsJsonObject().get("name").getAsString())
+                        .build());
+            }
+
+            cursor = nextCursor(connection);
+        } while (cursor != null);
+
+        return repositories;
+    }
+
+    private void fetchReleases(String owner, List<String> repos, Predicate<String> assetNameFilter, Map<String, List<ReleaseState>> releaseStates) {
+        Map<String, String> cursors = new LinkedHashMap<>();
+        for (String repo : repos) {
+            cursors.put(repo, null);
+        }
+
+        while (!cursors.isEmpty()) {
+            List<String> pendingRepos = List.copyOf(cursors.keySet());
+
+            var query = new StringBuilder("query {");
+            for (int index = 0; index < pendingRepos.size(); index++) {
+                String repo = pendingRepos.get(index);
+                query.append(" r").append(index).append(": repository(owner: ").append(literal(owner))
+                        .append(", name: ").append(literal(repo)).append(") {")
+                        .append(" releases(first: ").append(RELEASES_PER_PAGE).append(afterArgument(cursors.get(repo)))
+                        .append(", orderBy: {field: CREATED_AT, direction: DESC}) { ").append(PAGE_INFO_FIELDS)
+                        .append(" nodes { tagName isPrerelease releaseAssets(first: ").append(ASSETS_PER_PAGE).append(") { ")
+                        .append(ASSET_CONNECTION_FIELDS).append(" } } } }");
+            }
+            query.append(" }");
+
+            JsonObject data = callApi(query.toString());
+            for (int index = 0; index < pendingRepos.size(); index++) {
+                String repo = pendingRepos.get(index);
+                JsonObject connection = requireObject(data, "r" + index, owner + "/" + repo).getAsJsonObject("releases");
+
+                for (JsonElement node : connection.getAsJsonArray("nodes")) {
+                    JsonObject releaseNode = node.getAsJsonObject();
+                    var releaseState = new ReleaseState(repo,
+                            releaseNode.get("tagName").getAsString(),
+                            releaseNode.get("isPrerelease").getAsBoolean(),
+                            assetNameFilter);
+                    releaseState.addAssets(releaseNode.getAsJsonObject("releaseAssets"));
+                    releaseStates.get(repo).add(releaseState);
+                }
+
+                String nextCursor = nextCursor(connection);
+                if (nextCursor != null) {
+                    cursors.put(repo, nextCursor);
+                } else {
+                    cursors.remove(repo);
+                }
+            }
+        }
+    }
+
+    private void fetchRemainingAssets(String owner, List<ReleaseState> releases) {
+        List<ReleaseState> pendingReleases = releases;
+        while (!pendingReleases.isEmpty()) {
+            var query = new StringBuilder("query {");
+            for (int index = 0; index < pendingReleases.size(); index++) {
+                ReleaseState releaseState = pendingReleases.get(index);
+                query.append(" a").append(index).append(": repository(owner: ").append(literal(owner))
+                        .append(", name: ").append(literal(releaseState.repo)).append(") {")
+                        .append(" release(tagName: ").append(literal(releaseState.tagName)).append(") {")
+                        .append(" releaseAssets(first: ").append(ASSETS_PER_PAGE).append(afterArgument(releaseState.assetsCursor))
+                        .append(") { ").append(ASSET_CONNECTION_FIELDS).append(" } } }");
+            }
+            query.append(" }");
+
+            JsonObject data = callApi(query.toString());
+            for (int index = 0; index < pendingReleases.size(); index++) {
+                ReleaseState releaseState = pendingReleases.get(index);
+                JsonObject release = requireObject(requireObject(data, "a" + index, owner + "/" + releaseState.repo),
+                        "release", owner + "/" + releaseState.repo + "@" + releaseState.tagName);
+                releaseState.addAssets(release.getAsJsonObject("releaseAssets"));
+            }
+
+            pendingReleases = pendingReleases.stream()
+                    .filter(releaseState -> releaseState.assetsCursor != null)
+                    .toList();
+        }
+    }
+
+    private JsonObject callApi(String query) {
+        try {
+            log.debug("Calling Github GraphQL API: " + query);
+
+            var requestBody = new JsonObject();
+            requestBody.addProperty("query", query);
+
+            var httpRequest = HttpRequest.newBuilder()
+                    .uri(URI.create(GRAPHQL_API_URL))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", authorizationHeader)
+                    .timeout(FIVE_MINUTES)
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString(), StandardCharsets.UTF_8))
+                    .build();
+
+            HttpResponse<InputStream> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Received status code " + response.statusCode() + " from Github GraphQL API");
+            }
+
+            JsonObject responseBody;
+            try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                responseBody = JsonParser.parseReader(reader).getAsJsonObject();
+            }
+
+            JsonArray errors = responseBody.getAsJsonArray("errors");
+            if (errors != null && !errors.isEmpty()) {
+                throw new RuntimeException("Received errors from Github GraphQL API: " + errors);
+            }
+
+            return responseBody.getAsJsonObject("data");
+        } catch (IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static JsonObject requireObject(JsonObject parent, String memberName, String description) {
+        JsonElement element = parent.get(memberName);
+        if (element == null || !element.isJsonObject()) {
+            throw new RuntimeException("Github GraphQL API returned no data for " + description);
+        }
+        return element.getAsJsonObject();
+    }
+
+    private static String nextCursor(JsonObject connection) {
+        JsonObject pageInfo = connection.getAsJsonObject("pageInfo");
+        if (!pageInfo.get("hasNextPage").getAsBoolean()) {
+            return null;
+        }
+        return pageInfo.get("endCursor").getAsString();
+    }
+
+    private static String afterArgument(String cursor) {
+        return cursor != null ? ", after: " + literal(cursor) : "";
+    }
+
+    private static String literal(String value) {
+        // JSON string literals are valid GraphQL string literals
+        return new JsonPrimitive(value).toString();
+    }
+
+    private static final class ReleaseState {
+
+        private final String repo;
+        private final String tagName;
+        private final boolean prerelease;
+        private final Predicate<String> assetNameFilter;
+        private final List<ReleaseAsset> assets = new ArrayList<>();
+        private String assetsCursor;
+
+        private ReleaseState(String repo, String tagName, boolean prerelease, Predicate<String> assetNameFilter) {
+            this.repo = repo;
+            this.tagName = tagName;
+            this.prerelease = prerelease;
+            this.assetNameFilter = assetNameFilter;
+        }
+
+        private void addAssets(JsonObject assetConnection) {
+            for (JsonElement node : assetConnection.getAsJsonArray("nodes")) {
+                JsonObject assetNode = node.getAsJsonObject();
+                String assetName = assetNode.get("name").getAsString();
+                if (assetNameFilter.test(assetName)) {
+                    assets.add(ImmutableReleaseAsset.builder()
+                            .name(assetName)
+                            .browserDownloadUrl(assetNode.get("downloadUrl").getAsString())
+                            .build());
+                }
+            }
+            assetsCursor = nextCursor(assetConnection);
+        }
+
+        private Release toRelease() {
+            return ImmutableRelease.builder()
+                    .tagName(tagName)
+                    .isPrerelease(prerelease)
+                    .assets(assets)
+                    .build();
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package io.projectenv.tools.github.impl;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.projectenv.tools.github.ImmutableRelease;
+import io.projectenv.tools.github.ImmutableReleaseAsset;
+import io.projectenv.tools.github.Release;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Streaming decoder for release lists of the Github REST API.
+ * <p>
+ * Only the tag name, the prerelease flag and the name and download URL of matching assets are read,
+ * all other fields are skipped without being materialized.
+ */
+final class ReleaseJsonDecoder {
+
+    private ReleaseJsonDecoder() {
+        // noop
+    }
+
+    static List<Release> decodeReleases(JsonReader reader, Predicate<String> assetNameFilter) throws IOException {
+        List<Release> releases = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            releases.add(decodeRelease(reader, assetNameFilter));
+        }
+        reader.endArray();
+
+        return releases;
+    }
+
+    private static Release decodeRelease(JsonReader reader, Predicate<String> assetNameFilter) throws IOException {
+        var release = ImmutableRelease.builder();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+
+            switch (name) {
+                case "tag_name" -> release.tagName(reader.nextString());
+                case "prerelease" -> release.isPrerelease(reader.nextBoolean());
+                case "assets" -> decodeAssets(reader, assetNameFilter, release);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return release.build();
+    }
+
+    private static void decodeAssets(JsonReader reader, Predicate<String> assetNameFilter, ImmutableRelease.Builder release) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String assetName = null;
+            String browserDownloadUrl = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("name") && reader.peek() == JsonToken.STRING) {
+                    assetName = reader.nextString();
+                } else if (name.equals("browser_download_url") && reader.peek() == JsonToken.STRING) {
+                    browserDownloadUrl = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (assetName != null && browserDownloadUrl != null && assetNameFilter.test(assetName)) {
+                release.addAssets(ImmutableReleaseAsset.builder()
+                        .name(assetName)
+                        .browserDownloadUrl(browserDownloadUrl)
+                        .build());
+            }
+        }
+        reader.endArray();
+    }
+
+}
@@ -4,13 +4,14 @@ import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import io.projectenv.tools.http.HttpResponseCache;
 import io.projectenv.tools.http.ResilientHttpClient;
 import io.projectenv.tools.github.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -20,59 +21,120 @@ import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.maven.plugin.logging.Log;
 
 public class SimpleGithubClient implements GithubClient {
 
     private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+    private static final int PAGE_SIZE = 100;
+    private static final Pattern LAST_PAGE_LINK_PATTERN = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
+
+    private static final Type REPOSITORIES_TYPE = new TypeToken<List<Repository>>() {
+    }.getType();
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GsonAdaptersRepository())
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .create();
+
     private final String authorizationHeader;
     private final ResilientHttpClient httpClient;
+    private final HttpResponseCache responseCache;
     private final Log log;
 
-    private SimpleGithubClient(String authorizationHeader, Log log) {
+    private SimpleGithubClient(String authorizationHeader, ResilientHttpClient httpClient, HttpResponseCache responseCache, Log log) {
         this.authorizationHeader = authorizationHeader;
+        this.httpClient = httpClient;
+        this.responseCache = responseCache;
         this.log = log;
-        this.httpClient = ResilientHttpClient.create(log);
     }
 
-    public static SimpleGithubClient withAccessToken(String accessToken, Log log) {
+    /**
+     * Creates a client which revalidates responses stored in the given cache with conditional requests.
+     * Responses answered with {@code 304 Not Modified} do not count against the Github API rate limit.
+     */
+    public static SimpleGithubClient withAccessToken(String accessToken, ResilientHttpClient httpClient, HttpResponseCache responseCache, Log log) {
         var authorizationHeader = "Bearer " + accessToken;
-        return new SimpleGithubClient(authorizationHeader, log);
+        return new SimpleGithubClient(authorizationHeader, httpClient, responseCache, log);
     }
 
     @Override
-    public List<Release> getReleases(String owner, String repo) {
-        int page = 0;
-
-        List<Release> releases = new ArrayList<>();
+    public List<Release> getReleases(String owner, String repo, Predicate<String> assetNameFilter) {
+        return getAllPages(formatUrl("https://api.github.com/repos/{0}/{1}/releases?per_page={2}", owner, repo, PAGE_SIZE),
+                reader -> ReleaseJsonDecoder.decodeReleases(reader, assetNameFilter));
+    }
 
-        List<Release> releasesPage;
-        do {
-            releasesPage = callApi(formatUrl("https://api.github.com/repos/{0}/{1}/releases?page={2}", owner, repo, page), new TypeToken<List<Release>>() {
-            }.getType());
-            releases.addAll(releasesPage);
-            page++;
-        } while (!releasesPage.isEmpty());
+    @Override
+    public Map<String, List<Release>> getReleases(String owner, Collection<String> repos, Predicate<String> assetNameFilter) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<List<Release>>> futures = new LinkedHashMap<>();
+            for (String repo : repos) {
+                futures.put(repo, executor.submit(() -> getReleases(owner, repo, assetNameFilter)));
+            }
 
-        return releases;
+            Map<String, List<Release>> releases = new LinkedHashMap<>();
+            for (var entry : futures.entrySet()) {
+                releases.put(entry.getKey(), entry.getValue().get());
+            }
+            return releases;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to fetch releases of " + owner, e.getCause());
+        }
     }
 
     @Override
     public List<Repository> getRepositories(String owner) {
-        int page = 0;
+        return getAllPages(formatUrl("https://api.github.com/orgs/{0}/repos?per_page={1}", owner, PAGE_SIZE),
+                reader -> GSON.fromJson(reader, REPOSITORIES_TYPE));
+    }
 
-        List<Repository> repositories = new ArrayList<>();
+    /**
+     * Fetches the first page to learn the number of pages from its {@code Link: rel="last"} header
+     * and fetches the remaining pages concurrently. The pages are concatenated in page order.
+     */
+    private <T> List<T> getAllPages(String uri, PageDecoder<T> pageDecoder) {
+        ApiResponse<List<T>> firstPage = callApi(uri + "&page=1", pageDecoder);
+
+        int lastPage = firstPage.link()
+                .map(LAST_PAGE_LINK_PATTERN::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> Integer.parseInt(matcher.group(1)))
+                .orElse(1);
+
+        List<T> items = new ArrayList<>(firstPage.body());
+        if (lastPage <= 1) {
+            return items;
+        }
 
-        List<Repository> repositoriesPage;
-        do {
-            repositoriesPage = callApi(formatUrl("https://api.github.com/orgs/{0}/repos?page={1}", owner, page), new TypeToken<List<Repository>>() {
-            }.getType());
-            repositories.addAll(repositoriesPage);
-            page++;
-        } while (!repositoriesPage.isEmpty());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ApiResponse<List<T>>>> futures = new ArrayList<>();
+            for (int page = 2; page <= lastPage; page++) {
+                String pageUri = uri + "&page=" + page;
+                futures.add(executor.submit(() -> callApi(pageUri, pageDecoder)));
+            }
+
+            for (Future<ApiResponse<List<T>>> future : futures) {
+                items.addAll(future.get().body());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to fetch pages of " + uri, e.getCause());
+        }
 
-        return repositories;
+        return items;
     }
 
     private String formatUrl(String url, Object... parameters) {
@@ -84,25 +146,39 @@ public class SimpleGithubClient implements GithubClient {
         return MessageFormat.format(url, (Object[]) encodedParameters);
     }
 
-    private <T> T callApi(String uri, Type responseType) {
+    private <T> ApiResponse<List<T>> callApi(String uri, PageDecoder<T> pageDecoder) {
         try {
             log.debug("Calling Github API: " + uri);
 
-            var httpRequest = HttpRequest.newBuilder()
+            var cachedResponse = responseCache.get(uri);
+
+            var httpRequestBuilder = HttpRequest.newBuilder()
                     .uri(URI.create(uri))
                     .header("Accept", "application/vnd.github.v3+json")
                     .header("Authorization", authorizationHeader)
                     .timeout(FIVE_MINUTES)
-                    .GET()
-                    .build();
-
-            HttpResponse<InputStream> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
-            if (response.statusCode() != 200) {
+                    .GET();
+            cachedResponse.ifPresent(cached -> httpRequestBuilder.header("If-None-Match", cached.entityTag()));
+
+            HttpResponse<byte[]> response = httpClient.send(httpRequestBuilder.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+            byte[] body;
+            String link;
+            if (response.statusCode() == 304 && cachedResponse.isPresent()) {
+                log.debug("Using cached response for Github API: " + uri);
+                body = cachedResponse.get().body();
+                link = response.headers().firstValue("Link").orElse(cachedResponse.get().link());
+            } else if (response.statusCode() == 200) {
+                body = response.body();
+                link = response.headers().firstValue("Link").orElse(null);
+                response.headers().firstValue("ETag")
+                        .ifPresent(entityTag -> responseCache.put(uri, entityTag, link, body));
+            } else {
                 throw new RuntimeException("Received status code " + response.statusCode() + " from Github API: " + uri);
             }
 
-            try (Reader reader = new InputStreamReader(response.body())) {
-                return createGson().fromJson(reader, responseType);
+            try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+                return new ApiResponse<>(pageDecoder.decode(reader), Optional.ofNullable(link));
             }
         } catch (InterruptedException | IOException e) {
             Thread.currentThread().interrupt();
@@ -110,13 +186,14 @@ public class SimpleGithubClient implements GithubClient {
         }
     }
 
-    private static Gson createGson() {
-        return new GsonBuilder()
-                .registerTypeAdapterFactory(new GsonAdaptersRelease())
-                .registerTypeAdapterFactory(new GsonAdaptersReleaseAsset())
-                .registerTypeAdapterFactory(new GsonAdaptersRepository())
-                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-                .create();
+    @FunctionalInterface
+    private interface PageDecoder<T> {
+
+        List<T> decode(JsonReader reader) throws IOException;
+
+    }
+
+    private record ApiResponse<T>(T body, Optional<String> link) {
     }
 
 }
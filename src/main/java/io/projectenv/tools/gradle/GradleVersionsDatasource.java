@@ -31,7 +31,7 @@ public class GradleVersionsDatasource implements ToolsIndexDatasource {
     public ToolsIndexV2 fetchToolVersions() {
         SortedMap<String, String> gradleVersions = SortedCollections.createSemverSortedMap();
 
-        var releases = githubClient.getReleases("gradle", "gradle-distributions")
+        var releases = githubClient.getReleases("gradle", "gradle-distributions", BIN_ASSET_PATTERN.asMatchPredicate())
                 .stream()
                 .filter(release -> !release.isPrerelease())
                 .sorted(Comparator.comparing(Release::getTagName))
@@ -0,0 +1,171 @@
+package io.projectenv.tools.http;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent requests to a single host, adapting the limit to the host's responses
+ * with additive increase / multiplicative decrease (AIMD).
+ * <p>
+ * Every successful request raises the limit by {@code 1 / limit}, so the limit grows by about one per round
+ * of requests. Overload signals ({@code 429}, {@code 503}, I/O errors) halve it, and latencies well above the
+ * smoothed baseline latency reduce it slightly, before the host starts rejecting requests. A {@code Retry-After}
+ * pauses all requests to the host until the given time.
+ * <p>
+ * The limit is decreased at most once per round: responses to requests acquired before the last decrease do not
+ * decrease it again, since they were sent under the old limit. Otherwise a burst of overload responses to the
+ * requests in flight would cut the limit once per request.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double INITIAL_LIMIT = 20;
+    private static final double MIN_LIMIT = 1;
+    private static final double MAX_LIMIT = 200;
+
+    /**
+     * Longest pause of the host, longer {@code Retry-After} values are cut to it.
+     */
+    private static final Duration MAX_PAUSE = Duration.ofMinutes(15);
+
+    private static final double OVERLOAD_DECREASE_FACTOR = 0.5;
+    private static final double LATENCY_DECREASE_FACTOR = 0.9;
+
+    /**
+     * Latencies above this multiple of the baseline latency count as rising latency.
+     */
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    /**
+     * Weight of a latency in the exponentially weighted moving average of the baseline latency.
+     */
+    private static final double BASELINE_ADAPTION_WEIGHT = 0.05;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private double limit = INITIAL_LIMIT;
+    private int inFlight;
+    private double baselineLatencyNanos = -1;
+    private long pausedUntilNanos = System.nanoTime();
+    private long nextPermit;
+    private long firstPermitAfterDecrease;
+
+    /**
+     * Blocks until a request may be sent. Every successful call must be followed by one of
+     * {@link #onSuccess}, {@link #onOverload} or {@link #onCancel}.
+     *
+     * @return the permit of the request, to be passed to {@link #onSuccess} or {@link #onOverload}
+     */
+    public long acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long pauseNanos = pausedUntilNanos - System.nanoTime();
+                if (pauseNanos > 0) {
+                    permitAvailable.awaitNanos(pauseNanos);
+                } else if (inFlight >= (int) limit) {
+                    permitAvailable.await();
+                } else {
+                    inFlight++;
+                    return nextPermit++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request the host handled.
+     *
+     * @param latency the time until the response headers arrived, excluding the transfer of the body
+     */
+    public void onSuccess(long permit, Duration latency) {
+        long latencyNanos = latency.toNanos();
+
+        lock.lock();
+        try {
+            if (baselineLatencyNanos < 0) {
+                baselineLatencyNanos = latencyNanos;
+            }
+            boolean latencyRising = latencyNanos > baselineLatencyNanos * LATENCY_TOLERANCE;
+            baselineLatencyNanos += (latencyNanos - baselineLatencyNanos) * BASELINE_ADAPTION_WEIGHT;
+
+            if (latencyRising) {
+                decrease(permit, LATENCY_DECREASE_FACTOR);
+            } else {
+                limit = Math.min(MAX_LIMIT, limit + 1 / limit);
+            }
+
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request the host could not handle. If the host told when to retry,
+     * no further requests are let through until then.
+     */
+    public void onOverload(long permit, Duration retryAfter) {
+        lock.lock();
+        try {
+            decrease(permit, OVERLOAD_DECREASE_FACTOR);
+            if (retryAfter != null && !retryAfter.isNegative()) {
+                Duration pause = retryAfter.compareTo(MAX_PAUSE) > 0 ? MAX_PAUSE : retryAfter;
+                pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + pause.toNanos());
+            }
+
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a request which did not complete, without adapting the limit.
+     */
+    public void onCancel() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how long requests to the host are paused because of a {@code Retry-After}.
+     */
+    Duration getRemainingPause() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(Math.max(0, pausedUntilNanos - System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(long permit, double factor) {
+        if (permit >= firstPermitAfterDecrease) {
+            limit = Math.max(MIN_LIMIT, limit * factor);
+            firstPermitAfterDecrease = nextPermit;
+        }
+    }
+
+    private void release() {
+        inFlight--;
+        permitAvailable.signalAll();
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.projectenv.tools.http;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fetches the links of an HTML directory listing through a {@link ResilientHttpClient}.
+ * <p>
+ * The listing is parsed while it is downloaded, and every link is removed from the document as soon as it
+ * was read, so large listings are never held in memory as a whole.
+ */
+public class DirectoryListingFetcher {
+
+    public record Link(String href, String absoluteUrl, String text) {
+    }
+
+    private final ResilientHttpClient httpClient;
+
+    public DirectoryListingFetcher(ResilientHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public List<Link> fetchLinks(String url) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status code " + response.statusCode() + " for " + url);
+            }
+
+            return parseLinks(body, url);
+        }
+    }
+
+    static List<Link> parseLinks(InputStream body, String baseUrl) throws IOException {
+        List<Link> links = new ArrayList<>();
+        try (StreamParser parser = new StreamParser(Parser.htmlParser())
+                .parse(new InputStreamReader(body, StandardCharsets.UTF_8), baseUrl)) {
+            Element element;
+            while ((element = parser.selectNext("a[href]")) != null) {
+                links.add(new Link(element.attr("href"), element.absUrl("href"), element.text().trim()));
+                element.remove();
+            }
+        }
+
+        return links;
+    }
+
+}
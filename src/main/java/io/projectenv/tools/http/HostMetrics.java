@@ -0,0 +1,40 @@
+package io.projectenv.tools.http;
+
+import org.immutables.gson.Gson;
+import org.immutables.value.Value;
+
+/**
+ * Request statistics of a single host, collected by {@link HttpMetrics}.
+ */
+@Gson.TypeAdapters
+@Value.Immutable
+public interface HostMetrics {
+
+    /**
+     * Number of requests sent, counting every retry as a request of its own.
+     */
+    long getRequests();
+
+    long getRetries();
+
+    /**
+     * Number of requests which failed with an I/O error.
+     */
+    long getFailures();
+
+    /**
+     * Total time requests waited for the concurrency limiter of the host.
+     */
+    long getLimiterWaitMillis();
+
+    long getBytesReceived();
+
+    long getLatencyP50Millis();
+
+    long getLatencyP90Millis();
+
+    long getLatencyP99Millis();
+
+    long getLatencyMaxMillis();
+
+}
@@ -0,0 +1,43 @@
+package io.projectenv.tools.http;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link java.net.http.HttpClient} behind a {@link ResilientHttpClient}.
+ * <p>
+ * The connection pool size and the keep-alive timeout are JVM-wide settings of the JDK client, which are read once
+ * per JVM. They are therefore not part of this config, but set with the {@code jdk.httpclient.connectionPoolSize}
+ * and {@code jdk.httpclient.keepalive.timeout} system properties, e.g. in {@code MAVEN_OPTS}.
+ */
+@Value.Immutable
+public interface HttpClientConfig {
+
+    /**
+     * Whether HTTP/2 is preferred, which multiplexes all requests to a host over a single connection.
+     * Hosts which do not support HTTP/2 are still reached with HTTP/1.1.
+     */
+    @Value.Default
+    default boolean isHttp2Preferred() {
+        return true;
+    }
+
+    @Value.Default
+    default Duration getConnectTimeout() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * Timeout of requests which do not set their own timeout.
+     */
+    @Value.Default
+    default Duration getRequestTimeout() {
+        return Duration.ofMinutes(5);
+    }
+
+    static HttpClientConfig defaults() {
+        return ImmutableHttpClientConfig.builder().build();
+    }
+
+}
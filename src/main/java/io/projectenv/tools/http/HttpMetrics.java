@@ -0,0 +1,146 @@
+package io.projectenv.tools.http;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects request statistics per host for the requests sent through a {@link ResilientHttpClient}.
+ * <p>
+ * Latencies are measured from sending a request until its response headers arrive, the bytes received are
+ * counted while the response bodies are consumed.
+ */
+public class HttpMetrics {
+
+    private final ConcurrentMap<String, HostCounters> hosts = new ConcurrentHashMap<>();
+
+    void recordRequest(String host, long limiterWaitNanos, long latencyNanos) {
+        HostCounters counters = getCounters(host);
+        counters.requests.increment();
+        counters.limiterWaitNanos.add(limiterWaitNanos);
+        counters.recordLatency(latencyNanos);
+    }
+
+    void recordFailedRequest(String host, long limiterWaitNanos) {
+        HostCounters counters = getCounters(host);
+        counters.requests.increment();
+        counters.failures.increment();
+        counters.limiterWaitNanos.add(limiterWaitNanos);
+    }
+
+    void recordRetries(String host, int retries) {
+        getCounters(host).retries.add(retries);
+    }
+
+    /**
+     * Wraps the body handler, so that the bytes of the response body are counted for the host.
+     */
+    <T> HttpResponse.BodyHandler<T> countingBytes(String host, HttpResponse.BodyHandler<T> bodyHandler) {
+        LongAdder bytesReceived = getCounters(host).bytesReceived;
+        return responseInfo -> new CountingBodySubscriber<>(bodyHandler.apply(responseInfo), bytesReceived);
+    }
+
+    public SortedMap<String, HostMetrics> snapshot() {
+        SortedMap<String, HostMetrics> snapshot = new TreeMap<>();
+        hosts.forEach((host, counters) -> snapshot.put(host, counters.snapshot()));
+        return snapshot;
+    }
+
+    private HostCounters getCounters(String host) {
+        return hosts.computeIfAbsent(host, h -> new HostCounters());
+    }
+
+    private static class HostCounters {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder limiterWaitNanos = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        private long[] latenciesNanos = new long[64];
+        private int latencyCount;
+
+        private synchronized void recordLatency(long latencyNanos) {
+            if (latencyCount == latenciesNanos.length) {
+                latenciesNanos = Arrays.copyOf(latenciesNanos, latencyCount * 2);
+            }
+            latenciesNanos[latencyCount++] = latencyNanos;
+        }
+
+        private HostMetrics snapshot() {
+            long[] sortedLatencies;
+            synchronized (this) {
+                sortedLatencies = Arrays.copyOf(latenciesNanos, latencyCount);
+            }
+            Arrays.sort(sortedLatencies);
+
+            return ImmutableHostMetrics.builder()
+                    .requests(requests.sum())
+                    .retries(retries.sum())
+                    .failures(failures.sum())
+                    .limiterWaitMillis(TimeUnit.NANOSECONDS.toMillis(limiterWaitNanos.sum()))
+                    .bytesReceived(bytesReceived.sum())
+                    .latencyP50Millis(percentileMillis(sortedLatencies, 50))
+                    .latencyP90Millis(percentileMillis(sortedLatencies, 90))
+                    .latencyP99Millis(percentileMillis(sortedLatencies, 99))
+                    .latencyMaxMillis(percentileMillis(sortedLatencies, 100))
+                    .build();
+        }
+
+        /**
+         * Returns the nearest-rank percentile of the sorted latencies.
+         */
+        private static long percentileMillis(long[] sortedLatencies, int percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+            return TimeUnit.NANOSECONDS.toMillis(sortedLatencies[Math.max(rank, 1) - 1]);
+        }
+
+    }
+
+    private record CountingBodySubscriber<T>(HttpResponse.BodySubscriber<T> delegate,
+                                             LongAdder bytesReceived) implements HttpResponse.BodySubscriber<T> {
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            for (ByteBuffer buffer : buffers) {
+                bytesReceived.add(buffer.remaining());
+            }
+            delegate.onNext(buffers);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package io.projectenv.tools.http;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.projectenv.tools.AtomicFiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Persistent cache of HTTP response bodies keyed by URL, used to send conditional
+ * requests with {@code If-None-Match} and to serve the stored body on a {@code 304 Not Modified}.
+ * <p>
+ * Each entry is stored as two files named after the SHA-256 hash of the URL: the raw body
+ * and a small JSON document holding the URL, its {@code ETag} and its {@code Link} header.
+ */
+public class HttpResponseCache {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GsonAdaptersHttpResponseCacheEntry())
+            .create();
+
+    private final Path directory;
+    private final Log log;
+
+    private HttpResponseCache(Path directory, Log log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    public static HttpResponseCache open(File directory, Log log) {
+        return new HttpResponseCache(directory.toPath().toAbsolutePath(), log);
+    }
+
+    /**
+     * Creates a cache which never stores nor returns any response.
+     */
+    public static HttpResponseCache disabled() {
+        return new HttpResponseCache(null, null);
+    }
+
+    public Optional<CachedHttpResponse> get(String url) {
+        if (directory == null) {
+            return Optional.empty();
+        }
+
+        String key = toKey(url);
+        Path entryFile = directory.resolve(key + ".json");
+        Path bodyFile = directory.resolve(key + ".body");
+        if (!Files.exists(entryFile) || !Files.exists(bodyFile)) {
+            return Optional.empty();
+        }
+
+        try (Reader reader = Files.newBufferedReader(entryFile, StandardCharsets.UTF_8)) {
+            HttpResponseCacheEntry entry = GSON.fromJson(reader, HttpResponseCacheEntry.class);
+            if (entry == null || !url.equals(entry.getUrl())) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new CachedHttpResponse(entry.getEntityTag(), entry.getLink().orElse(null), Files.readAllBytes(bodyFile)));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable cached response for " + url + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(String url, String entityTag, String link, byte[] body) {
+        if (directory == null) {
+            return;
+        }
+
+        String key = toKey(url);
+        try {
+            // The body is moved into place first, so that an existing entry file always refers to a complete body
+            AtomicFiles.write(directory.resolve(key + ".body"), body);
+
+            var entry = ImmutableHttpResponseCacheEntry.builder()
+                    .url(url)
+                    .entityTag(entityTag)
+                    .link(Optional.ofNullable(link))
+                    .build();
+            AtomicFiles.write(directory.resolve(key + ".json"), writer -> GSON.toJson(entry, HttpResponseCacheEntry.class, writer));
+        } catch (IOException e) {
+            log.warn("Failed to cache response for " + url + ": " + e.getMessage());
+        }
+    }
+
+    private static String toKey(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record CachedHttpResponse(String entityTag, String link, byte[] body) {
+    }
+
+}
@@ -0,0 +1,18 @@
+package io.projectenv.tools.http;
+
+import org.immutables.gson.Gson;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+@Gson.TypeAdapters
+@Value.Immutable
+public interface HttpResponseCacheEntry {
+
+    String getUrl();
+
+    String getEntityTag();
+
+    Optional<String> getLink();
+
+}
@@ -0,0 +1,277 @@
+package io.projectenv.tools.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads single entries of remote zip archives with HTTP range requests, without downloading the whole archive.
+ * <p>
+ * The end of the archive is fetched first to locate the central directory, then the central directory to locate
+ * the entry, and finally only the local header and the compressed bytes of the entry. Zip64 archives are supported,
+ * entries have to be stored or deflated.
+ */
+public class RangedZipReader {
+
+    /**
+     * Thrown if the server does not answer range requests with partial content.
+     */
+    public static class RangesNotSupportedException extends IOException {
+
+        public RangesNotSupportedException(String message) {
+            super(message);
+        }
+
+    }
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final short ZIP64_EXTRA_FIELD_ID = 0x0001;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    /**
+     * Bytes fetched beyond the compressed data, so that local extra fields usually need no further request.
+     */
+    private static final int LOCAL_HEADER_SLACK = 1024;
+
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    private final ResilientHttpClient httpClient;
+
+    public RangedZipReader(ResilientHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Reads the uncompressed content of the first entry whose name matches the given filter.
+     *
+     * @throws RangesNotSupportedException if the server does not support range requests
+     */
+    public Optional<byte[]> readEntry(String url, Predicate<String> entryNameFilter) throws IOException, InterruptedException {
+        Range tail = fetchRange(url, "bytes=-" + (END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH));
+        ByteBuffer tailBuffer = tail.buffer();
+
+        int eocdPosition = findEndOfCentralDirectory(tailBuffer);
+        if (eocdPosition < 0) {
+            throw new IOException("No end of central directory record found in " + url);
+        }
+
+        long centralDirectorySize = Integer.toUnsignedLong(tailBuffer.getInt(eocdPosition + 12));
+        long centralDirectoryOffset = Integer.toUnsignedLong(tailBuffer.getInt(eocdPosition + 16));
+        if (centralDirectorySize == ZIP64_MARKER || centralDirectoryOffset == ZIP64_MARKER) {
+            int locatorPosition = eocdPosition - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE;
+            if (locatorPosition < 0 || tailBuffer.getInt(locatorPosition) != ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE) {
+                throw new IOException("No zip64 end of central directory locator found in " + url);
+            }
+
+            long zip64EocdOffset = tailBuffer.getLong(locatorPosition + 8);
+            ByteBuffer zip64Eocd = slice(url, tail, zip64EocdOffset, ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE);
+            if (zip64Eocd.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                throw new IOException("Invalid zip64 end of central directory record in " + url);
+            }
+            centralDirectorySize = zip64Eocd.getLong(40);
+            centralDirectoryOffset = zip64Eocd.getLong(48);
+        }
+
+        ByteBuffer centralDirectory = slice(url, tail, centralDirectoryOffset, centralDirectorySize);
+        Optional<CentralDirectoryEntry> entry = findEntry(centralDirectory, entryNameFilter);
+        if (entry.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(readEntryData(url, tail, entry.get()));
+    }
+
+    private byte[] readEntryData(String url, Range tail, CentralDirectoryEntry entry) throws IOException, InterruptedException {
+        long expectedLength = LOCAL_FILE_HEADER_SIZE + entry.nameLength() + entry.extraLength() + entry.compressedSize();
+        ByteBuffer local = slice(url, tail, entry.localHeaderOffset(),
+                Math.min(expectedLength + LOCAL_HEADER_SLACK, tail.totalLength() - entry.localHeaderOffset()));
+        if (local.getInt(0) != LOCAL_FILE_HEADER_SIGNATURE) {
+            throw new IOException("Invalid local file header for " + entry.name() + " in " + url);
+        }
+
+        long dataOffset = LOCAL_FILE_HEADER_SIZE + Short.toUnsignedInt(local.getShort(26)) + Short.toUnsignedInt(local.getShort(28));
+        if (dataOffset + entry.compressedSize() > local.limit()) {
+            local = slice(url, tail, entry.localHeaderOffset(), dataOffset + entry.compressedSize());
+        }
+
+        byte[] compressed = new byte[Math.toIntExact(entry.compressedSize())];
+        local.get(Math.toIntExact(dataOffset), compressed);
+
+        return switch (entry.method()) {
+            case METHOD_STORED -> compressed;
+            case METHOD_DEFLATED -> inflate(compressed, entry.uncompressedSize());
+            default -> throw new IOException("Unsupported compression method " + entry.method() + " of " + entry.name() + " in " + url);
+        };
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer tail) {
+        for (int position = tail.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= 0; position--) {
+            if (tail.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static Optional<CentralDirectoryEntry> findEntry(ByteBuffer centralDirectory, Predicate<String> entryNameFilter) throws IOException {
+        int position = 0;
+        while (position + CENTRAL_DIRECTORY_HEADER_SIZE <= centralDirectory.limit()) {
+            if (centralDirectory.getInt(position) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                throw new IOException("Invalid central directory header at " + position);
+            }
+
+            int method = Short.toUnsignedInt(centralDirectory.getShort(position + 10));
+            long compressedSize = Integer.toUnsignedLong(centralDirectory.getInt(position + 20));
+            long uncompressedSize = Integer.toUnsignedLong(centralDirectory.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(centralDirectory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(centralDirectory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(centralDirectory.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(position + 42));
+
+            byte[] nameBytes = new byte[nameLength];
+            centralDirectory.get(position + CENTRAL_DIRECTORY_HEADER_SIZE, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (entryNameFilter.test(name)) {
+                // Values which do not fit into 32 bits are stored in the zip64 extra field, in this order
+                int extraPosition = position + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength;
+                int extraEnd = extraPosition + extraLength;
+                while (extraPosition + 4 <= extraEnd) {
+                    short id = centralDirectory.getShort(extraPosition);
+                    int size = Short.toUnsignedInt(centralDirectory.getShort(extraPosition + 2));
+                    if (id == ZIP64_EXTRA_FIELD_ID) {
+                        int valuePosition = extraPosition + 4;
+                        if (uncompressedSize == ZIP64_MARKER) {
+                            uncompressedSize = centralDirectory.getLong(valuePosition);
+                            valuePosition += 8;
+                        }
+                        if (compressedSize == ZIP64_MARKER) {
+                            compressedSize = centralDirectory.getLong(valuePosition);
+                            valuePosition += 8;
+                        }
+                        if (localHeaderOffset == ZIP64_MARKER) {
+                            localHeaderOffset = centralDirectory.getLong(valuePosition);
+                        }
+                    }
+                    extraPosition += 4 + size;
+                }
+
+                return Optional.of(new CentralDirectoryEntry(name, method, compressedSize, uncompressedSize,
+                        nameLength, extraLength, localHeaderOffset));
+            }
+
+            position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+
+        return Optional.empty();
+    }
+
+    private static byte[] inflate(byte[] compressed, long uncompressedSize) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] uncompressed = new byte[Math.toIntExact(uncompressedSize)];
+            int length = 0;
+            while (length < uncompressed.length && !inflater.finished()) {
+                int inflated = inflater.inflate(uncompressed, length, uncompressed.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != uncompressed.length) {
+                throw new IOException("Entry inflated to " + length + " instead of " + uncompressed.length + " bytes");
+            }
+            return uncompressed;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns the given part of the archive, from the already fetched tail if it contains the part.
+     */
+    private ByteBuffer slice(String url, Range tail, long offset, long length) throws IOException, InterruptedException {
+        if (offset < 0 || length < 0 || offset + length > tail.totalLength()) {
+            throw new IOException("Invalid range " + offset + "+" + length + " of " + url);
+        }
+
+        if (offset >= tail.start()) {
+            return tail.buffer().slice(Math.toIntExact(offset - tail.start()), Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (length == 0) {
+            return ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        return fetchRange(url, "bytes=" + offset + "-" + (offset + length - 1)).buffer();
+    }
+
+    private Range fetchRange(String url, String range) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Range", range)
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 200) {
+                // Closing the body without reading it aborts the download of the whole archive
+                throw new RangesNotSupportedException("Range requests are not supported for " + url);
+            }
+            if (response.statusCode() != 206) {
+                throw new IOException("Unexpected status code " + response.statusCode() + " for " + url);
+            }
+
+            String contentRange = response.headers().firstValue("Content-Range").orElse("");
+            Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+            if (!matcher.matches()) {
+                throw new RangesNotSupportedException("Unexpected Content-Range '" + contentRange + "' for " + url);
+            }
+
+            byte[] bytes = body.readAllBytes();
+            long start = Long.parseLong(matcher.group(1));
+            long end = Long.parseLong(matcher.group(2));
+            if (bytes.length != end - start + 1) {
+                throw new IOException("Received " + bytes.length + " bytes for range " + contentRange + " of " + url);
+            }
+
+            return new Range(start, Long.parseLong(matcher.group(3)), ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    private record Range(long start, long totalLength, ByteBuffer buffer) {
+    }
+
+    private record CentralDirectoryEntry(String name, int method, long compressedSize, long uncompressedSize,
+                                         int nameLength, int extraLength, long localHeaderOffset) {
+    }
+
+}
@@ -1,90 +1,144 @@
 package io.projectenv.tools.http;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.core.functions.Either;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.apache.maven.plugin.logging.Log;
 
 /**
- * HTTP client with retry and per-host rate limiting via Resilience4j.
- * Each target host gets its own independent rate limiter.
+ * HTTP client with retry via Resilience4j and per-host adaptive concurrency limits.
+ * Each target host gets its own independent {@link AdaptiveConcurrencyLimiter}.
+ * <p>
+ * I/O errors, server errors and rate limited requests are retried. Rate limited requests wait as long as the
+ * {@code Retry-After} or {@code X-RateLimit-Reset} header asks for, all others back off exponentially with jitter.
+ * The number of retries of all requests sent through one client is limited by a retry budget.
+ * <p>
+ * The client owns its connections and threads, which are released by {@link #close()}.
  */
-public class ResilientHttpClient {
+public class ResilientHttpClient implements AutoCloseable {
 
-    private static final int MAX_RETRIES = 3;
-    private static final Duration WAIT_DURATION = Duration.ofSeconds(2);
-    private static final Duration RATE_LIMIT_REFRESH_PERIOD = Duration.ofSeconds(1);
-    private static final int RATE_LIMIT_PERMISSIONS_PER_PERIOD = 50;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    /**
+     * Requests whose rate limit resets later than this fail instead of waiting for the reset.
+     */
+    private static final Duration MAX_RATE_LIMIT_WAIT = Duration.ofMinutes(15);
+
+    /**
+     * Maximum number of retries of all requests sent through one client.
+     */
+    private static final int RETRY_BUDGET = 500;
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
 
     private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
     private final Retry retry;
-    private final RateLimiterConfig rateLimiterConfig;
-    private final ConcurrentMap<String, RateLimiter> hostRateLimiters = new ConcurrentHashMap<>();
+    private final Log log;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private final HttpMetrics metrics = new HttpMetrics();
 
-    private ResilientHttpClient(HttpClient httpClient, Retry retry, RateLimiterConfig rateLimiterConfig) {
+    private ResilientHttpClient(HttpClient httpClient, ExecutorService executor, Duration requestTimeout, Retry retry, Log log) {
         this.httpClient = httpClient;
+        this.executor = executor;
+        this.requestTimeout = requestTimeout;
         this.retry = retry;
-        this.rateLimiterConfig = rateLimiterConfig;
+        this.log = log;
     }
 
     public static ResilientHttpClient create(Log log) {
-        HttpClient httpClient = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .connectTimeout(Duration.ofMinutes(5))
-                .build();
+        return create(HttpClientConfig.defaults(), log);
+    }
 
-        RetryConfig retryConfig = RetryConfig.custom()
-                .maxAttempts(MAX_RETRIES)
-                .waitDuration(WAIT_DURATION)
-                .retryExceptions(IOException.class, RuntimeException.class)
-                .retryOnResult(response -> response instanceof HttpResponse<?> hr && hr.statusCode() >= 500)
-                .build();
+    public static ResilientHttpClient create(HttpClientConfig config, Log log) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient httpClient;
+        try {
+            httpClient = HttpClient.newBuilder()
+                    .version(config.isHttp2Preferred() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(config.getConnectTimeout())
+                    .executor(executor)
+                    .build();
+        } catch (RuntimeException e) {
+            executor.close();
+            throw e;
+        }
 
-        RateLimiterConfig rateLimiterConfig = RateLimiterConfig.custom()
-                .limitRefreshPeriod(RATE_LIMIT_REFRESH_PERIOD)
-                .limitForPeriod(RATE_LIMIT_PERMISSIONS_PER_PERIOD)
-                .timeoutDuration(Duration.ofMinutes(1))
+        AtomicInteger retryBudget = new AtomicInteger(RETRY_BUDGET);
+
+        RetryConfig retryConfig = RetryConfig.<Object>custom()
+                .maxAttempts(MAX_ATTEMPTS)
+                .intervalBiFunction(ResilientHttpClient::computeRetryDelayMillis)
+                // The predicates are also evaluated for the last attempt, so the budget is only charged on actual retries
+                .retryOnException(throwable -> isRetryableException(throwable) && retryBudget.get() > 0)
+                .retryOnResult(result -> result instanceof HttpResponse<?> response
+                        && isRetryableResponse(response, log) && retryBudget.get() > 0)
+                .consumeResultBeforeRetryAttempt((attempt, result) -> discardBody(result))
                 .build();
 
         Retry retry = Retry.of("httpRetry", retryConfig);
 
         retry.getEventPublisher()
-                .onRetry(event -> log.debug("Retry attempt " + event.getNumberOfRetryAttempts()
-                        + " due to: " + (event.getLastThrowable() != null
-                                ? event.getLastThrowable().getMessage()
-                                : "server error")));
+                .onRetry(event -> {
+                    consumeRetryBudget(retryBudget, log);
+                    log.debug("Retry attempt " + event.getNumberOfRetryAttempts()
+                            + " in " + event.getWaitInterval().toMillis() + " ms due to: " + (event.getLastThrowable() != null
+                                    ? event.getLastThrowable().getMessage()
+                                    : "retryable response"));
+                });
 
-        return new ResilientHttpClient(httpClient, retry, rateLimiterConfig);
+        return new ResilientHttpClient(httpClient, executor, config.getRequestTimeout(), retry, log);
     }
 
     public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
             throws IOException, InterruptedException {
+        HttpRequest timedRequest = request.timeout().isPresent()
+                ? request
+                : HttpRequest.newBuilder(request, (name, value) -> true).timeout(requestTimeout).build();
+
         String host = request.uri().getHost();
-        RateLimiter rateLimiter = hostRateLimiters.computeIfAbsent(host,
-                h -> RateLimiter.of("rateLimiter-" + h, rateLimiterConfig));
-
-        Supplier<HttpResponse<T>> supplier = RateLimiter.decorateSupplier(rateLimiter,
-                Retry.decorateSupplier(retry, () -> {
-                    try {
-                        return httpClient.send(request, bodyHandler);
-                    } catch (IOException | InterruptedException e) {
-                        if (e instanceof InterruptedException) {
-                            Thread.currentThread().interrupt();
-                        }
-                        throw new RuntimeException(e);
-                    }
-                }));
+        AdaptiveConcurrencyLimiter limiter = hostLimiters.computeIfAbsent(host, h -> new AdaptiveConcurrencyLimiter());
+        HttpResponse.BodyHandler<T> countingBodyHandler = metrics.countingBytes(host, bodyHandler);
+
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<HttpResponse<T>> supplier = Retry.decorateSupplier(retry, () -> {
+            attempts.incrementAndGet();
+            try {
+                return sendLimited(limiter, timedRequest, countingBodyHandler);
+            } catch (IOException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new RuntimeException(e);
+            }
+        });
 
         try {
             return supplier.get();
@@ -97,10 +151,181 @@ public class ResilientHttpClient {
                 throw interruptedException;
             }
             throw e;
+        } finally {
+            metrics.recordRetries(host, attempts.get() - 1);
+        }
+    }
+
+    /**
+     * Sends a single attempt of the request within the concurrency limit of its host,
+     * and reports the outcome to the limiter.
+     */
+    private <T> HttpResponse<T> sendLimited(AdaptiveConcurrencyLimiter limiter, HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        String host = request.uri().getHost();
+        long acquireNanos = System.nanoTime();
+        long permit = limiter.acquire();
+
+        boolean completed = false;
+        long startNanos = System.nanoTime();
+        // The latency is taken when the headers arrived, so that the size of the body does not count
+        AtomicLong headersReceivedNanos = new AtomicLong();
+        try {
+            HttpResponse<T> response = httpClient.send(request, responseInfo -> {
+                headersReceivedNanos.set(System.nanoTime());
+                return bodyHandler.apply(responseInfo);
+            });
+            completed = true;
+            Duration latency = Duration.ofNanos(headersReceivedNanos.get() - startNanos);
+            metrics.recordRequest(host, startNanos - acquireNanos, latency.toNanos());
+
+            int statusCode = response.statusCode();
+            Optional<Duration> retryAfter = parseRateLimitDelay(response.headers());
+            if (statusCode == 429 || statusCode == 503 || (statusCode == 403 && retryAfter.isPresent())) {
+                // Requests are not retried beyond the limit, so neither should they pause the other requests to the host
+                Optional<Duration> pause = retryAfter.filter(duration -> duration.compareTo(MAX_RATE_LIMIT_WAIT) <= 0);
+                limiter.onOverload(permit, pause.orElse(null));
+                log.debug("Received " + statusCode + " from " + host + ", reducing concurrency limit to " + limiter.getLimit()
+                        + pause.map(duration -> " and pausing for " + duration.toMillis() + " ms").orElse(""));
+            } else {
+                limiter.onSuccess(permit, latency);
+            }
+
+            return response;
+        } catch (IOException e) {
+            completed = true;
+            metrics.recordFailedRequest(host, startNanos - acquireNanos);
+            limiter.onOverload(permit, null);
+            throw e;
+        } finally {
+            if (!completed) {
+                limiter.onCancel();
+            }
+        }
+    }
+
+    static boolean isRetryableException(Throwable throwable) {
+        // attempts wrap checked exceptions into runtime exceptions
+        Throwable cause = throwable instanceof RuntimeException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof IOException;
+    }
+
+    static boolean isRetryableResponse(HttpResponse<?> response, Log log) {
+        int statusCode = response.statusCode();
+        if (statusCode < 500 && statusCode != 403 && statusCode != 429) {
+            return false;
+        }
+
+        // A 403 without rate limit headers is a permission problem, which does not go away by retrying
+        Optional<Duration> rateLimitDelay = parseRateLimitDelay(response.headers());
+        if (rateLimitDelay.isEmpty()) {
+            return statusCode != 403;
+        }
+
+        if (rateLimitDelay.get().compareTo(MAX_RATE_LIMIT_WAIT) > 0) {
+            log.warn("Rate limit of " + response.uri().getHost() + " resets in " + rateLimitDelay.get().toMinutes() + " minutes, not waiting for it");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Waits as long as the rate limit headers of a response ask for,
+     * otherwise backs off exponentially with half of the delay being random.
+     */
+    static Long computeRetryDelayMillis(Integer attempt, Either<Throwable, Object> outcome) {
+        if (outcome.isRight() && outcome.get() instanceof HttpResponse<?> response) {
+            Optional<Duration> rateLimitDelay = parseRateLimitDelay(response.headers());
+            if (rateLimitDelay.isPresent()) {
+                return Math.max(0, rateLimitDelay.get().toMillis());
+            }
+        }
+
+        long backoffMillis = Math.min(MAX_BACKOFF.toMillis(), INITIAL_BACKOFF.toMillis() << Math.min(attempt - 1, 16));
+        return backoffMillis / 2 + ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+    }
+
+    private static void consumeRetryBudget(AtomicInteger retryBudget, Log log) {
+        if (retryBudget.decrementAndGet() == 0) {
+            log.warn("Retry budget of " + RETRY_BUDGET + " retries is exhausted, failed requests are not retried anymore");
+        }
+    }
+
+    private static void discardBody(Object result) {
+        // the connection of a streamed response is only released once its body is closed
+        if (result instanceof HttpResponse<?> response && response.body() instanceof InputStream body) {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // ignore, the response is discarded anyway
+            }
         }
     }
 
+    /**
+     * Returns how long to wait before the next request according to the {@code Retry-After} header
+     * or, if the rate limit is used up, the {@code X-RateLimit-Reset} header used by Github.
+     */
+    static Optional<Duration> parseRateLimitDelay(HttpHeaders headers) {
+        return parseRetryAfter(headers).or(() -> {
+            if (!headers.firstValue("X-RateLimit-Remaining").map("0"::equals).orElse(false)) {
+                return Optional.empty();
+            }
+            try {
+                return headers.firstValue("X-RateLimit-Reset")
+                        .map(reset -> Instant.ofEpochSecond(Long.parseLong(reset.trim())))
+                        .map(resetAt -> Duration.between(Instant.now(), resetAt).plusSeconds(1));
+            } catch (NumberFormatException | DateTimeException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Parses a {@code Retry-After} header, which holds either a number of seconds or an HTTP date.
+     */
+    static Optional<Duration> parseRetryAfter(HttpHeaders headers) {
+        return headers.firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                // not a number of seconds, try an HTTP date
+            }
+            try {
+                Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Optional.of(Duration.between(Instant.now(), retryAt));
+            } catch (DateTimeParseException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Returns the statistics of all requests sent through this client so far.
+     */
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+
     public HttpClient getHttpClient() {
         return httpClient;
     }
+
+    /**
+     * Waits a short time for the requests in flight, then closes all connections and stops the threads of the client.
+     */
+    @Override
+    public void close() {
+        httpClient.shutdown();
+        try {
+            // Responses whose streamed bodies were never closed would otherwise be waited for forever
+            if (!httpClient.awaitTermination(CLOSE_TIMEOUT)) {
+                httpClient.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            httpClient.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
 }
@@ -0,0 +1,91 @@
+package io.projectenv.tools.jdk;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.projectenv.tools.AtomicFiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * On-disk cache of the GraalVM versions extracted from release archives, shared between generator runs.
+ * <p>
+ * Published release assets do not change, so an entry keyed by release tag and archive URL stays valid forever.
+ */
+public class GraalVmVersionCache {
+
+    private static final Type ENTRIES_TYPE = new TypeToken<Map<String, String>>() {
+    }.getType();
+
+    private static final Gson GSON = new Gson();
+
+    private final File cacheFile;
+    private final ConcurrentMap<String, String> entries;
+
+    private GraalVmVersionCache(File cacheFile, Map<String, String> entries) {
+        this.cacheFile = cacheFile;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    public static GraalVmVersionCache load(File cacheFile, Log log) {
+        Map<String, String> entries = Map.of();
+        if (cacheFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+                Map<String, String> storedEntries = GSON.fromJson(reader, ENTRIES_TYPE);
+                if (storedEntries != null) {
+                    entries = storedEntries;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable GraalVM version cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+
+        log.debug("Loaded " + entries.size() + " GraalVM version cache entries from " + cacheFile);
+        return new GraalVmVersionCache(cacheFile, entries);
+    }
+
+    /**
+     * Creates a cache which is always empty and not persisted.
+     */
+    public static GraalVmVersionCache disabled() {
+        return new GraalVmVersionCache(null, Map.of());
+    }
+
+    public Optional<String> get(String releaseTag, String archiveUrl) {
+        return Optional.ofNullable(entries.get(createKey(releaseTag, archiveUrl)));
+    }
+
+    public void put(String releaseTag, String archiveUrl, String graalVmVersion) {
+        if (cacheFile != null) {
+            entries.put(createKey(releaseTag, archiveUrl), graalVmVersion);
+        }
+    }
+
+    public void save() {
+        if (cacheFile == null) {
+            return;
+        }
+
+        try {
+            AtomicFiles.write(cacheFile.toPath(), writer -> GSON.toJson(new TreeMap<>(entries), ENTRIES_TYPE, writer));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String createKey(String releaseTag, String archiveUrl) {
+        return releaseTag + "|" + archiveUrl;
+    }
+
+}
@@ -1,12 +1,12 @@
 package io.projectenv.tools.jdk;
 
 import io.projectenv.tools.*;
+import io.projectenv.tools.http.RangedZipReader;
 import io.projectenv.tools.http.ResilientHttpClient;
 import io.projectenv.tools.github.GithubClient;
 import io.projectenv.tools.github.Release;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -45,11 +45,20 @@ public class GraalVmVersionsDatasource implements ToolsIndexDatasource {
 
     private final GithubClient githubClient;
     private final ResilientHttpClient httpClient;
+    private final RangedZipReader rangedZipReader;
+    private final GraalVmVersionCache versionCache;
     private final Log log;
 
     public GraalVmVersionsDatasource(GithubClient githubClient, ResilientHttpClient httpClient, Log log) {
+        this(githubClient, httpClient, GraalVmVersionCache.disabled(), log);
+    }
+
+    public GraalVmVersionsDatasource(GithubClient githubClient, ResilientHttpClient httpClient,
+                                     GraalVmVersionCache versionCache, Log log) {
         this.githubClient = githubClient;
         this.httpClient = httpClient;
+        this.rangedZipReader = new RangedZipReader(httpClient);
+        this.versionCache = versionCache;
         this.log = log;
     }
 
@@ -58,12 +67,13 @@ public class GraalVmVersionsDatasource implements ToolsIndexDatasource {
         SortedMap<String, SortedSet<String>> jdkDistributionSynonyms = SortedCollections.createNaturallySortedMap();
         SortedMap<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> jdkVersions = SortedCollections.createNaturallySortedMap();
 
-        var releases = githubClient.getReleases("graalvm", "graalvm-ce-builds")
+        var releases = githubClient.getReleases("graalvm", "graalvm-ce-builds", RELEASE_ASSET_NAME_PATTERN.asPredicate())
                 .stream()
                 .sorted(Comparator.comparing(Release::getTagName))
                 .toList();
 
         List<ReleaseResult> releaseResults = processReleasesInParallel(releases);
+        versionCache.save();
 
         for (var result : releaseResults) {
             for (Map.Entry<String, Map<OperatingSystem, Map<CpuArchitecture, String>>> entry : result.downloadUrls().entrySet()) {
@@ -146,7 +156,11 @@ public class GraalVmVersionsDatasource implements ToolsIndexDatasource {
                 .map(entry -> entry.getValue().get(OperatingSystem.WINDOWS).get(CpuArchitecture.AMD64))
                 .orElseThrow();
 
-        String graalVmVersion = extractGraalVmVersion(firstWindowsDownloadUrl);
+        String graalVmVersion = versionCache.get(release.getTagName(), firstWindowsDownloadUrl).orElse(null);
+        if (graalVmVersion == null) {
+            graalVmVersion = extractGraalVmVersion(firstWindowsDownloadUrl);
+            versionCache.put(release.getTagName(), firstWindowsDownloadUrl, graalVmVersion);
+        }
 
         return new ReleaseResult(graalVmVersion, downloadUrls);
     }
@@ -167,36 +181,24 @@ public class GraalVmVersionsDatasource implements ToolsIndexDatasource {
 
     private String extractGraalVmVersion(String windowsDistributionUrl) {
         try {
-            var request = HttpRequest.newBuilder()
-                    .uri(URI.create(windowsDistributionUrl))
-                    .GET()
-                    .build();
-
-            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
-            if (response.statusCode() != 200) {
-                throw new IOException("Unexpected status code " + response.statusCode() + " for " + windowsDistributionUrl);
+            Optional<byte[]> versionFile;
+            try {
+                versionFile = rangedZipReader.readEntry(windowsDistributionUrl, name -> name.endsWith(GRAAL_VM_VERSION_FILE_PATH));
+            } catch (RangedZipReader.RangesNotSupportedException e) {
+                log.warn(e.getMessage() + ", downloading the whole archive");
+                versionFile = readVersionFileByStreaming(windowsDistributionUrl);
             }
 
-            try (InputStream in = response.body();
-                 ZipInputStream zipIn = new ZipInputStream(new BufferedInputStream(in))) {
-
-                ZipEntry entry;
-                while ((entry = zipIn.getNextEntry()) != null) {
-                    if (entry.getName().endsWith(GRAAL_VM_VERSION_FILE_PATH)) {
-                        var buffer = new ByteArrayOutputStream();
-                        zipIn.transferTo(buffer);
-
-                        String versionFileContent = buffer.toString(StandardCharsets.UTF_8);
-                        var versionMatcher = GRAAL_VM_VERSION_PATTERN.matcher(versionFileContent);
-                        if (!versionMatcher.find()) {
-                            throw new IllegalStateException("Found release file but could not extract GraalVM version");
-                        }
-                        return versionMatcher.group(1);
-                    }
-                }
+            if (versionFile.isEmpty()) {
+                throw new IllegalStateException("Could not find release file in " + windowsDistributionUrl);
             }
 
-            throw new IllegalStateException("Could not find release file in " + windowsDistributionUrl);
+            String versionFileContent = new String(versionFile.get(), StandardCharsets.UTF_8);
+            var versionMatcher = GRAAL_VM_VERSION_PATTERN.matcher(versionFileContent);
+            if (!versionMatcher.find()) {
+                throw new IllegalStateException("Found release file but could not extract GraalVM version");
+            }
+            return versionMatcher.group(1);
         } catch (IOException | InterruptedException e) {
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt();
@@ -205,6 +207,30 @@ public class GraalVmVersionsDatasource implements ToolsIndexDatasource {
         }
     }
 
+    private Optional<byte[]> readVersionFileByStreaming(String windowsDistributionUrl) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(windowsDistributionUrl))
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream in = response.body();
+             ZipInputStream zipIn = new ZipInputStream(new BufferedInputStream(in))) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status code " + response.statusCode() + " for " + windowsDistributionUrl);
+            }
+
+            ZipEntry entry;
+            while ((entry = zipIn.getNextEntry()) != null) {
+                if (entry.getName().endsWith(GRAAL_VM_VERSION_FILE_PATH)) {
+                    return Optional.of(zipIn.readAllBytes());
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
     record ReleaseResult(String graalVmVersion, Map<String, Map<OperatingSystem, Map<CpuArchitecture, String>>> downloadUrls) {
     }
 
@@ -6,14 +6,10 @@ import io.projectenv.tools.github.Release;
 import io.projectenv.tools.github.Repository;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.SortedSet;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.apache.maven.plugin.logging.Log;
@@ -47,27 +43,16 @@ public class TemurinVersionsDatasource implements ToolsIndexDatasource {
         SortedMap<String, SortedSet<String>> jdkDistributionSynonyms = SortedCollections.createNaturallySortedMap();
         SortedMap<String, SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>>> jdkVersions = SortedCollections.createNaturallySortedMap();
 
-        List<Repository> matchingRepos = githubClient.getRepositories("adoptium")
+        List<String> matchingRepos = githubClient.getRepositories("adoptium")
                 .stream()
-                .filter(repo -> RELEASES_REPOSITORY_PATTERN.matcher(repo.getName()).find())
+                .map(Repository::getName)
+                .filter(name -> RELEASES_REPOSITORY_PATTERN.matcher(name).find())
                 .toList();
 
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            List<Future<List<Release>>> futures = new ArrayList<>();
-
-            for (Repository repository : matchingRepos) {
-                futures.add(executor.submit(() ->
-                        githubClient.getReleases("adoptium", repository.getName())
-                                .stream()
-                                .sorted(Comparator.comparing(Release::getTagName))
-                                .toList()));
-            }
-
-            for (Future<List<Release>> future : futures) {
-                processReleases(future.get(), jdkVersions);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch Temurin releases in parallel", e);
+        for (List<Release> releases : githubClient.getReleases("adoptium", matchingRepos, RELEASE_ASSET_NAME_PATTERN.asPredicate()).values()) {
+            processReleases(releases.stream()
+                    .sorted(Comparator.comparing(Release::getTagName))
+                    .toList(), jdkVersions);
         }
 
         jdkDistributionSynonyms.put(DISTRIBUTION_ID, SYNONYMS);
@@ -27,7 +27,7 @@ public class MavenDaemonVersionsDatasource implements ToolsIndexDatasource {
     public ToolsIndexV2 fetchToolVersions() {
         SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> mvndVersions = SortedCollections.createSemverSortedMap();
 
-        var releases = githubClient.getReleases("apache", "maven-mvnd")
+        var releases = githubClient.getReleases("apache", "maven-mvnd", RELEASE_ASSET_NAME_PATTERN.asPredicate())
                 .stream()
                 .sorted(Comparator.comparing(Release::getTagName))
                 .toList();
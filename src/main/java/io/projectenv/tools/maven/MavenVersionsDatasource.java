@@ -4,12 +4,16 @@ import io.projectenv.tools.ImmutableToolsIndexV2;
 import io.projectenv.tools.SortedCollections;
 import io.projectenv.tools.ToolsIndexDatasource;
 import io.projectenv.tools.ToolsIndexV2;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import io.projectenv.tools.http.DirectoryListingFetcher;
+import io.projectenv.tools.http.ResilientHttpClient;
 
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -22,33 +26,91 @@ public class MavenVersionsDatasource implements ToolsIndexDatasource {
     private static final String DOWNLOADS_BASE_URL_4 = "https://downloads.apache.org/maven/maven-4/";
     private static final String ARCHIVE_BASE_URL_4 = "https://archive.apache.org/dist/maven/maven-4/";
 
+    private final DirectoryListingFetcher listingFetcher;
+    private final boolean skipUnchangedArchive;
+
+    public MavenVersionsDatasource(ResilientHttpClient httpClient) {
+        this(httpClient, false);
+    }
+
+    /**
+     * @param skipUnchangedArchive if enabled, the archive listings are not fetched when the downloads listings
+     *                             show no change compared to the previous index, whose versions are taken over instead
+     */
+    public MavenVersionsDatasource(ResilientHttpClient httpClient, boolean skipUnchangedArchive) {
+        this.listingFetcher = new DirectoryListingFetcher(httpClient);
+        this.skipUnchangedArchive = skipUnchangedArchive;
+    }
+
     @Override
     public ToolsIndexV2 fetchToolVersions() {
-        try {
-            SortedMap<String, String> downloadsUrls3 = fetchVersions(DOWNLOADS_BASE_URL);
-            SortedMap<String, String> archiveUrls3 = fetchVersions(ARCHIVE_BASE_URL);
-            SortedMap<String, String> downloadsUrls4 = fetchVersions(DOWNLOADS_BASE_URL_4);
-            SortedMap<String, String> archiveUrls4 = fetchVersions(ARCHIVE_BASE_URL_4);
+        return fetchMavenVersions(null);
+    }
+
+    @Override
+    public ToolsIndexV2 fetchToolVersions(ToolsIndexV2 previousIndex) {
+        if (!skipUnchangedArchive || previousIndex.getMavenVersions() == null || previousIndex.getMavenVersions().isEmpty()) {
+            return fetchToolVersions();
+        }
+
+        return fetchMavenVersions(previousIndex.getMavenVersions());
+    }
+
+    private ToolsIndexV2 fetchMavenVersions(SortedMap<String, String> previousVersions) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<SortedMap<String, String>> downloadsUrls3 = executor.submit(() -> fetchVersions(DOWNLOADS_BASE_URL));
+            Future<SortedMap<String, String>> downloadsUrls4 = executor.submit(() -> fetchVersions(DOWNLOADS_BASE_URL_4));
 
             SortedMap<String, String> merged = SortedCollections.createSemverSortedMap();
-            merged.putAll(archiveUrls3);
-            merged.putAll(archiveUrls4);
-            merged.putAll(downloadsUrls3);
-            merged.putAll(downloadsUrls4);
+            if (previousVersions != null && !hasDownloadsChanged(previousVersions, downloadsUrls3.get(), downloadsUrls4.get())) {
+                // Versions only move from the downloads to the archive listing, so the archive is unchanged as well
+                merged.putAll(previousVersions);
+            } else {
+                Future<SortedMap<String, String>> archiveUrls3 = executor.submit(() -> fetchVersions(ARCHIVE_BASE_URL));
+                Future<SortedMap<String, String>> archiveUrls4 = executor.submit(() -> fetchVersions(ARCHIVE_BASE_URL_4));
+                merged.putAll(archiveUrls3.get());
+                merged.putAll(archiveUrls4.get());
+            }
+            merged.putAll(downloadsUrls3.get());
+            merged.putAll(downloadsUrls4.get());
 
             return ImmutableToolsIndexV2.builder()
                     .mavenVersions(merged)
                     .build();
-        } catch (IOException e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns whether the downloads listings contain a version missing from the previous index,
+     * or no longer contain a version the previous index downloads from there.
+     */
+    private static boolean hasDownloadsChanged(SortedMap<String, String> previousVersions,
+                                               SortedMap<String, String> downloadsUrls3,
+                                               SortedMap<String, String> downloadsUrls4) {
+        if (!previousVersions.keySet().containsAll(downloadsUrls3.keySet())
+                || !previousVersions.keySet().containsAll(downloadsUrls4.keySet())) {
+            return true;
+        }
+
+        for (var entry : previousVersions.entrySet()) {
+            String url = entry.getValue();
+            if ((url.startsWith(DOWNLOADS_BASE_URL) && !url.equals(downloadsUrls3.get(entry.getKey())))
+                    || (url.startsWith(DOWNLOADS_BASE_URL_4) && !url.equals(downloadsUrls4.get(entry.getKey())))) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private SortedMap<String, String> fetchVersions(String baseUrl) throws IOException {
-        Document doc = Jsoup.connect(baseUrl).get();
-        return doc.getElementsByTag("a")
+    private SortedMap<String, String> fetchVersions(String baseUrl) throws IOException, InterruptedException {
+        return listingFetcher.fetchLinks(baseUrl)
                 .stream()
-                .map(element -> element.attr("href"))
+                .map(DirectoryListingFetcher.Link::href)
                 .map(VERSION_PATTERN::matcher)
                 .filter(Matcher::find)
                 .map(matcher -> matcher.group(1))
@@ -0,0 +1,66 @@
+package io.projectenv.tools.nodejs;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming decoder for the release index of nodejs.org ({@code index.json}).
+ * <p>
+ * Only the version and the identifiers of the published files (e.g. {@code linux-x64} or {@code win-x64-zip})
+ * are read, all other fields are skipped without being materialized.
+ */
+final class NodeReleaseIndexDecoder {
+
+    record NodeRelease(String version, Set<String> files) {
+    }
+
+    private NodeReleaseIndexDecoder() {
+        // noop
+    }
+
+    static List<NodeRelease> decodeReleases(JsonReader reader) throws IOException {
+        List<NodeRelease> releases = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            NodeRelease release = decodeRelease(reader);
+            if (release != null) {
+                releases.add(release);
+            }
+        }
+        reader.endArray();
+
+        return releases;
+    }
+
+    private static NodeRelease decodeRelease(JsonReader reader) throws IOException {
+        String version = null;
+        Set<String> files = new HashSet<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("version") && reader.peek() == JsonToken.STRING) {
+                version = reader.nextString();
+            } else if (name.equals("files") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    files.add(reader.nextString());
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return version != null ? new NodeRelease(version, files) : null;
+    }
+
+}
@@ -1,58 +1,228 @@
 package io.projectenv.tools.nodejs;
 
+import com.google.gson.stream.JsonReader;
 import io.projectenv.tools.*;
+import io.projectenv.tools.http.DirectoryListingFetcher;
+import io.projectenv.tools.http.ResilientHttpClient;
+import io.projectenv.tools.nodejs.NodeReleaseIndexDecoder.NodeRelease;
 import org.apache.maven.plugin.logging.Log;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class NodeVersionsDatasource implements ToolsIndexDatasource {
 
     private static final String RELEASE_BASE_URL = "https://nodejs.org/download/release/";
 
-    private static final Pattern VERSION_PATTERN = Pattern.compile("v(\\d+\\.\\d+\\.\\d+)/");
+    private static final String RELEASE_INDEX_URL = RELEASE_BASE_URL + "index.json";
 
-    private static final int MAX_CONCURRENT_FETCHES = 40;
+    private static final Pattern VERSION_PATTERN = Pattern.compile("v(\\d+\\.\\d+\\.\\d+)/");
+    private static final Pattern RELEASE_INDEX_VERSION_PATTERN = Pattern.compile("v(\\d+\\.\\d+\\.\\d+)");
 
-    private record AssetMapping(String preferredSuffix, String fallbackSuffix, OperatingSystem os,
-                                CpuArchitecture arch) {
+    /**
+     * Asset of a release, with the identifier under which the release index lists it.
+     */
+    private record AssetMapping(String preferredSuffix, String fallbackSuffix, String releaseIndexFile,
+                                OperatingSystem os, CpuArchitecture arch) {
     }
 
     private static final List<AssetMapping> ASSET_MAPPINGS = List.of(
-            new AssetMapping("-darwin-x64.tar.xz", "-darwin-x64.tar.gz", OperatingSystem.MACOS, CpuArchitecture.AMD64),
-            new AssetMapping("-darwin-arm64.tar.xz", "-darwin-arm64.tar.gz", OperatingSystem.MACOS, CpuArchitecture.AARCH64),
-            new AssetMapping("-linux-x64.tar.xz", "-linux-x64.tar.gz", OperatingSystem.LINUX, CpuArchitecture.AMD64),
-            new AssetMapping("-linux-arm64.tar.xz", "-linux-arm64.tar.gz", OperatingSystem.LINUX, CpuArchitecture.AARCH64),
-            new AssetMapping("-win-x64.zip", null, OperatingSystem.WINDOWS, CpuArchitecture.AMD64)
+            new AssetMapping("-darwin-x64.tar.xz", "-darwin-x64.tar.gz", "osx-x64-tar", OperatingSystem.MACOS, CpuArchitecture.AMD64),
+            new AssetMapping("-darwin-arm64.tar.xz", "-darwin-arm64.tar.gz", "osx-arm64-tar", OperatingSystem.MACOS, CpuArchitecture.AARCH64),
+            new AssetMapping("-linux-x64.tar.xz", "-linux-x64.tar.gz", "linux-x64", OperatingSystem.LINUX, CpuArchitecture.AMD64),
+            new AssetMapping("-linux-arm64.tar.xz", "-linux-arm64.tar.gz", "linux-arm64", OperatingSystem.LINUX, CpuArchitecture.AARCH64),
+            new AssetMapping("-win-x64.zip", null, "win-x64-zip", OperatingSystem.WINDOWS, CpuArchitecture.AMD64)
     );
 
+    private final ResilientHttpClient httpClient;
+    private final DirectoryListingFetcher listingFetcher;
+    private final boolean useReleaseIndex;
+    private final int recentVersionWindow;
     private final Log log;
-    private final Semaphore semaphore = new Semaphore(MAX_CONCURRENT_FETCHES);
 
-    public NodeVersionsDatasource(Log log) {
+    public NodeVersionsDatasource(ResilientHttpClient httpClient, Log log) {
+        this(httpClient, true, -1, log);
+    }
+
+    /**
+     * @param useReleaseIndex     if enabled, the versions and their assets are read from the release index
+     *                            ({@code index.json}), and the release directories are only scraped if that fails
+     * @param recentVersionWindow number of most recent versions whose release directories are scraped even if
+     *                            the previous index knows them, or -1 to ignore the previous index
+     */
+    public NodeVersionsDatasource(ResilientHttpClient httpClient, boolean useReleaseIndex, int recentVersionWindow, Log log) {
+        this.httpClient = httpClient;
+        this.listingFetcher = new DirectoryListingFetcher(httpClient);
+        this.useReleaseIndex = useReleaseIndex;
+        this.recentVersionWindow = recentVersionWindow;
         this.log = log;
     }
 
     @Override
     public ToolsIndexV2 fetchToolVersions() {
-        List<String> versions = fetchVersions();
-        log.debug("Found " + versions.size() + " Node.js versions, fetching release assets...");
+        return fetchNodeVersions(Collections.emptyMap());
+    }
+
+    @Override
+    public ToolsIndexV2 fetchToolVersions(ToolsIndexV2 previousIndex) {
+        if (recentVersionWindow < 0 || previousIndex.getNodeVersions() == null) {
+            return fetchToolVersions();
+        }
+
+        return fetchNodeVersions(previousIndex.getNodeVersions());
+    }
+
+    private ToolsIndexV2 fetchNodeVersions(Map<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> knownVersions) {
+        List<NodeRelease> releases = null;
+        if (useReleaseIndex) {
+            try {
+                releases = fetchReleaseIndex();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to read the Node.js release index, falling back to the release directories: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reading the Node.js release index", e);
+            }
+        }
+
+        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> downloadUrls;
+        if (releases != null) {
+            // Failures while scraping the 0.x releases are not a reason to discard the release index
+            downloadUrls = fetchFromReleaseIndex(releases, knownVersions);
+        } else {
+            List<String> versions = fetchVersions();
+            log.debug("Found " + versions.size() + " Node.js versions, fetching release assets...");
+            downloadUrls = fetchVersionsAssets(versions, selectRecentVersions(versions), knownVersions);
+        }
+
+        return ImmutableToolsIndexV2.builder()
+                .nodeVersions(downloadUrls)
+                .build();
+    }
+
+    private SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> fetchFromReleaseIndex(
+            List<NodeRelease> releases, Map<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> knownVersions) {
+        log.debug("Found " + releases.size() + " Node.js versions in the release index");
+
+        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> downloadUrls =
+                SortedCollections.createSemverSortedMap();
+        List<String> versions = new ArrayList<>();
+        List<String> scrapedVersions = new ArrayList<>();
+
+        for (NodeRelease release : releases) {
+            Matcher matcher = RELEASE_INDEX_VERSION_PATTERN.matcher(release.version());
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            String version = matcher.group(1);
+            versions.add(version);
+            if (version.startsWith("0.")) {
+                // Only some 0.x releases have .tar.xz archives, which the release index does not tell apart
+                // from .tar.gz, so their directories are still scraped
+                scrapedVersions.add(version);
+                continue;
+            }
+
+            var osMap = deriveVersionAssets(version, release.files());
+            if (!osMap.isEmpty()) {
+                downloadUrls.put(version, osMap);
+            }
+        }
+
+        log.debug("Fetching release assets of " + scrapedVersions.size() + " Node.js 0.x versions...");
+        downloadUrls.putAll(fetchVersionsAssets(scrapedVersions, selectRecentVersions(versions), knownVersions));
+
+        return downloadUrls;
+    }
+
+    private List<NodeRelease> fetchReleaseIndex() throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create(RELEASE_INDEX_URL))
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status code " + response.statusCode() + " for " + RELEASE_INDEX_URL);
+            }
+
+            return NodeReleaseIndexDecoder.decodeReleases(new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Derives the download URLs of a release from the files listed in the release index.
+     * Releases from 4.0.0 on publish all tarballs as .tar.xz.
+     */
+    static SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>> deriveVersionAssets(String version, Set<String> files) {
+        String versionUrl = RELEASE_BASE_URL + "v" + version + "/";
+        String filePrefix = "node-v" + version;
+
+        SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>> osMap =
+                SortedCollections.createNaturallySortedMap();
 
+        for (AssetMapping mapping : ASSET_MAPPINGS) {
+            if (files.contains(mapping.releaseIndexFile())) {
+                osMap.computeIfAbsent(mapping.os(), k -> SortedCollections.createNaturallySortedMap())
+                        .put(mapping.arch(), versionUrl + filePrefix + mapping.preferredSuffix());
+            }
+        }
+
+        return osMap;
+    }
+
+    /**
+     * Returns the versions within the recent version window, whose assets are fetched even if they are known.
+     */
+    private Set<String> selectRecentVersions(List<String> versions) {
+        return versions.stream()
+                .sorted((version1, version2) -> SortedCollections.compareVersions(version2, version1))
+                .limit(Math.max(recentVersionWindow, 0))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Fetches the assets of the given versions, except for versions from the previous index outside the recent
+     * version window, whose assets are taken over as published releases do not change.
+     */
+    private SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> fetchVersionsAssets(
+            List<String> versions, Set<String> recentVersions,
+            Map<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> knownVersions) {
         SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> downloadUrls =
                 SortedCollections.createSemverSortedMap();
 
+        List<String> versionsToFetch = new ArrayList<>();
+        for (String version : versions) {
+            var knownAssets = knownVersions.get(version);
+            if (knownAssets != null && !recentVersions.contains(version)) {
+                downloadUrls.put(version, knownAssets);
+            } else {
+                versionsToFetch.add(version);
+            }
+        }
+        if (!knownVersions.isEmpty()) {
+            log.debug("Taking over the assets of " + downloadUrls.size() + " known Node.js versions, fetching "
+                    + versionsToFetch.size() + " versions");
+        }
+
         try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
             List<Future<?>> futures = new ArrayList<>();
 
-            for (String version : versions) {
+            for (String version : versionsToFetch) {
                 futures.add(executor.submit(() -> {
                     var osMap = fetchVersionAssets(version);
                     if (!osMap.isEmpty()) {
@@ -70,23 +240,22 @@ public class NodeVersionsDatasource implements ToolsIndexDatasource {
             throw new RuntimeException("Failed to fetch Node.js version assets", e);
         }
 
-        return ImmutableToolsIndexV2.builder()
-                .nodeVersions(downloadUrls)
-                .build();
+        return downloadUrls;
     }
 
     private List<String> fetchVersions() {
         try {
-            Document doc = Jsoup.connect(RELEASE_BASE_URL).get();
-
-            return doc.getElementsByTag("a")
+            return listingFetcher.fetchLinks(RELEASE_BASE_URL)
                     .stream()
-                    .map(element -> element.attr("href"))
+                    .map(DirectoryListingFetcher.Link::href)
                     .map(VERSION_PATTERN::matcher)
                     .filter(Matcher::find)
                     .map(matcher -> matcher.group(1))
                     .toList();
-        } catch (IOException e) {
+        } catch (IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             throw new RuntimeException("Failed to fetch Node.js version list", e);
         }
     }
@@ -95,48 +264,44 @@ public class NodeVersionsDatasource implements ToolsIndexDatasource {
         String versionUrl = RELEASE_BASE_URL + "v" + version + "/";
 
         try {
-            semaphore.acquire();
-            try {
-                log.debug("Fetching assets for Node.js v" + version);
-
-                Document doc = Jsoup.connect(versionUrl).get();
-
-                // Build a map from filename to absolute download URL using the actual href
-                // Skip URLs containing "latest" to avoid flip-flopping between URL formats
-                Map<String, String> fileToUrl = new HashMap<>();
-                for (var element : doc.getElementsByTag("a")) {
-                    String url = element.absUrl("href");
-                    String filename = element.text().trim();
-                    if (!url.isEmpty() && !filename.isEmpty() && !url.contains("/latest")) {
-                        fileToUrl.put(filename, url);
-                    }
-                }
+            log.debug("Fetching assets for Node.js v" + version);
 
-                String filePrefix = "node-v" + version;
+            // Build a map from filename to absolute download URL using the actual href
+            // Skip URLs containing "latest" to avoid flip-flopping between URL formats
+            Map<String, String> fileToUrl = new HashMap<>();
+            for (var link : listingFetcher.fetchLinks(versionUrl)) {
+                String url = link.absoluteUrl();
+                String filename = link.text();
+                if (!url.isEmpty() && !filename.isEmpty() && !url.contains("/latest")) {
+                    fileToUrl.put(filename, url);
+                }
+            }
 
-                SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>> osMap =
-                        SortedCollections.createNaturallySortedMap();
+            String filePrefix = "node-v" + version;
 
-                for (AssetMapping mapping : ASSET_MAPPINGS) {
-                    String preferredFile = filePrefix + mapping.preferredSuffix();
-                    String fallbackFile = mapping.fallbackSuffix() != null ? filePrefix + mapping.fallbackSuffix() : null;
+            SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>> osMap =
+                    SortedCollections.createNaturallySortedMap();
 
-                    String downloadUrl = fileToUrl.get(preferredFile);
-                    if (downloadUrl == null && fallbackFile != null) {
-                        downloadUrl = fileToUrl.get(fallbackFile);
-                    }
+            for (AssetMapping mapping : ASSET_MAPPINGS) {
+                String preferredFile = filePrefix + mapping.preferredSuffix();
+                String fallbackFile = mapping.fallbackSuffix() != null ? filePrefix + mapping.fallbackSuffix() : null;
 
-                    if (downloadUrl != null) {
-                        osMap.computeIfAbsent(mapping.os(), k -> SortedCollections.createNaturallySortedMap())
-                                .put(mapping.arch(), downloadUrl);
-                    }
+                String downloadUrl = fileToUrl.get(preferredFile);
+                if (downloadUrl == null && fallbackFile != null) {
+                    downloadUrl = fileToUrl.get(fallbackFile);
                 }
 
-                return osMap;
-            } finally {
-                semaphore.release();
+                if (downloadUrl != null) {
+                    osMap.computeIfAbsent(mapping.os(), k -> SortedCollections.createNaturallySortedMap())
+                            .put(mapping.arch(), downloadUrl);
+                }
             }
+
+            return osMap;
         } catch (IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.warn("Failed to fetch assets for Node.js v" + version + ": " + e.getMessage());
             return SortedCollections.createNaturallySortedMap();
         }
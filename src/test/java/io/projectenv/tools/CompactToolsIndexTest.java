@@ -0,0 +1,58 @@
+package io.projectenv.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactToolsIndexTest {
+
+    @Test
+    void testLookupReturnsAllDownloads(@TempDir Path tempDir) {
+        ToolsIndexV2 toolsIndex = ToolIndexV2Parser.readFrom(new File("index-v2.json"));
+
+        File compactIndexFile = tempDir.resolve("index-v2.bin").toFile();
+        CompactToolsIndexWriter.writeTo(toolsIndex, compactIndexFile);
+        CompactToolsIndex compactToolsIndex = CompactToolsIndex.open(compactIndexFile);
+
+        assertThat(compactIndexFile.length()).isLessThan(new File("index-v2.json").length());
+
+        Map<ToolsIndexLeaf.Key, List<ToolsIndexLeaf>> leavesByVersion = ToolsIndexLeaves.flatten(toolsIndex)
+                .stream()
+                .collect(Collectors.groupingBy(leaf -> new ToolsIndexLeaf.Key(leaf.key().tool(), leaf.key().distribution(), leaf.key().version(), null, null)));
+        for (var entry : leavesByVersion.entrySet()) {
+            assertThat(compactToolsIndex.lookup(entry.getKey().tool(), entry.getKey().distribution(), entry.getKey().version()))
+                    .containsExactlyInAnyOrderElementsOf(entry.getValue());
+        }
+
+        assertThat(compactToolsIndex.lookup(ToolType.NODE, null, null)).hasSize(toolsIndex.getNodeVersions()
+                .values()
+                .stream()
+                .flatMap(operatingSystems -> operatingSystems.values().stream())
+                .mapToInt(Map::size)
+                .sum());
+        assertThat(compactToolsIndex.lookup(ToolType.GRADLE, null, "0.0.0")).isEmpty();
+        assertThat(compactToolsIndex.lookup(ToolType.JDK, "unknown", null)).isEmpty();
+    }
+
+    @Test
+    void testResolveJdkDistribution() throws Exception {
+        ToolsIndexV2 toolsIndex = ToolIndexV2Parser.readFrom(new File("index-v2.json"));
+        CompactToolsIndex compactToolsIndex = CompactToolsIndex.wrap(CompactToolsIndexWriter.toBytes(toolsIndex));
+
+        for (var entry : toolsIndex.getJdkDistributionSynonyms().entrySet()) {
+            assertThat(compactToolsIndex.resolveJdkDistribution(entry.getKey())).contains(entry.getKey());
+            for (String synonym : entry.getValue()) {
+                assertThat(compactToolsIndex.resolveJdkDistribution(synonym)).contains(entry.getKey());
+            }
+        }
+        assertThat(compactToolsIndex.resolveJdkDistribution("unknown")).isEmpty();
+    }
+
+}
@@ -0,0 +1,80 @@
+package io.projectenv.tools;
+
+import com.sun.net.httpserver.HttpServer;
+import io.projectenv.tools.http.ResilientHttpClient;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownloadUrlValidatorTest {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final ResilientHttpClient httpClient = ResilientHttpClient.create(new SystemStreamLog());
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().startsWith("/missing") ? 404 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testValidateUrls() {
+        ToolsIndexLeaf existingLeaf = leaf(ToolType.GRADLE, "8.0", null, null, url("/gradle-8.0-bin.zip"));
+        ToolsIndexLeaf brokenExistingLeaf = leaf(ToolType.NODE, "20.0.0", OperatingSystem.LINUX, CpuArchitecture.AMD64, url("/missing/node-v20.0.0-linux-x64.tar.xz"));
+        ToolsIndexLeaf newLeaf = leaf(ToolType.CLOJURE, "1.12.0.1479", OperatingSystem.MACOS, null, url("/clojure-tools-1.12.0.1479.tar.gz"));
+        ToolsIndexLeaf brokenNewLeaf = leaf(ToolType.JDK, "21", OperatingSystem.WINDOWS, CpuArchitecture.AMD64, url("/missing/jdk-21.zip"));
+
+        ToolsIndexV2 previousIndex = ToolsIndexLeaves.assemble(List.of(existingLeaf, brokenExistingLeaf), null);
+        ToolsIndexV2 mergedIndex = ToolsIndexLeaves.assemble(List.of(existingLeaf, brokenExistingLeaf, newLeaf, brokenNewLeaf), null);
+
+        ToolsIndexV2 validatedIndex = new DownloadUrlValidator(httpClient, UrlValidationCache.disabled(), new SystemStreamLog()).validateUrls(previousIndex, mergedIndex);
+
+        assertThat(ToolsIndexLeaves.flatten(validatedIndex)).containsExactlyInAnyOrder(existingLeaf, brokenExistingLeaf, newLeaf);
+    }
+
+    @Test
+    void testValidateDuplicateUrlsOnce() {
+        ToolsIndexLeaf linuxLeaf = leaf(ToolType.CLOJURE, "1.12.0.1479", OperatingSystem.LINUX, null, url("/clojure-tools-1.12.0.1479.tar.gz"));
+        ToolsIndexLeaf macosLeaf = leaf(ToolType.CLOJURE, "1.12.0.1479", OperatingSystem.MACOS, null, url("/clojure-tools-1.12.0.1479.tar.gz"));
+        ToolsIndexLeaf brokenLinuxLeaf = leaf(ToolType.CLOJURE, "1.12.0.1480", OperatingSystem.LINUX, null, url("/missing/clojure-tools-1.12.0.1480.tar.gz"));
+        ToolsIndexLeaf brokenMacosLeaf = leaf(ToolType.CLOJURE, "1.12.0.1480", OperatingSystem.MACOS, null, url("/missing/clojure-tools-1.12.0.1480.tar.gz"));
+
+        ToolsIndexV2 previousIndex = ToolsIndexLeaves.assemble(List.of(), null);
+        ToolsIndexV2 mergedIndex = ToolsIndexLeaves.assemble(List.of(linuxLeaf, macosLeaf, brokenLinuxLeaf, brokenMacosLeaf), null);
+
+        ToolsIndexV2 validatedIndex = new DownloadUrlValidator(httpClient, UrlValidationCache.disabled(), new SystemStreamLog()).validateUrls(previousIndex, mergedIndex);
+
+        assertThat(ToolsIndexLeaves.flatten(validatedIndex)).containsExactlyInAnyOrder(linuxLeaf, macosLeaf);
+        assertThat(requestCount).hasValue(2);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static ToolsIndexLeaf leaf(ToolType tool, String version, OperatingSystem operatingSystem, CpuArchitecture cpuArchitecture, String url) {
+        String distribution = tool == ToolType.JDK ? "temurin" : null;
+        return new ToolsIndexLeaf(new ToolsIndexLeaf.Key(tool, distribution, version, operatingSystem, cpuArchitecture), url);
+    }
+
+}
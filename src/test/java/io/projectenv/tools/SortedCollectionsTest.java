@@ -1,6 +1,11 @@
 package io.projectenv.tools;
 
 import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SortedCollectionsTest {
@@ -60,5 +65,23 @@ class SortedCollectionsTest {
         assertTrue(SortedCollections.compareVersions("1.2", "1.10") < 0);
         assertTrue(SortedCollections.compareVersions("2.9", "2.10") < 0);
     }
-}
 
+    @Test
+    void testMatchesSplittingImplementation() {
+        List<String> versions = new ArrayList<>();
+        ToolsIndexLeaves.flatten(ToolIndexV2Parser.readFrom(new File("index-v2.json")))
+                .forEach(leaf -> versions.add(leaf.key().version()));
+        versions.addAll(List.of("", "1", "1.", ".1", "1..2", "1.2-rc-", "1.2-rc--rc-", "1.2-rc--rc-3", "1.2-rc-x-rc-1",
+                "1.2-rc-3-rc-4", "-rc-1", "1.2+3-rc-1", "+1", "1.2.x", "-1.2", "+1.2", "1.-", "2147483647", "2147483648",
+                "-2147483648", "99999999999999999999", "1.2-ea+7", "1.2.3-rc-2+build", "\u0661.2"));
+
+        List<String> distinctVersions = versions.stream().distinct().toList();
+        for (String version1 : distinctVersions) {
+            for (String version2 : distinctVersions) {
+                assertEquals(Integer.signum(SplittingVersionComparator.compareVersions(version1, version2)),
+                        Integer.signum(SortedCollections.compareVersions(version1, version2)),
+                        version1 + " <=> " + version2);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.projectenv.tools;
+
+/**
+ * The previous implementation of {@link SortedCollections#compareVersions}, which splits the versions on every
+ * comparison. Kept as reference for the tests and the benchmarks.
+ */
+final class SplittingVersionComparator {
+
+    private SplittingVersionComparator() {
+        // noop
+    }
+
+    static int compareVersions(String version1, String version2) {
+        String v1 = version1.split("\\+")[0];
+        String v2 = version2.split("\\+")[0];
+
+        String[] v1Parts = v1.split("-rc-");
+        String[] v2Parts = v2.split("-rc-");
+        Integer v1Rc = v1Parts.length > 1 ? parseIntSafe(v1Parts[1]) : null;
+        Integer v2Rc = v2Parts.length > 1 ? parseIntSafe(v2Parts[1]) : null;
+
+        String[] v1Splits = v1Parts[0].split("\\.");
+        String[] v2Splits = v2Parts[0].split("\\.");
+        int maxLength = Math.max(v1Splits.length, v2Splits.length);
+        for (int i = 0; i < maxLength; i++) {
+            int n1 = i < v1Splits.length ? parseIntSafe(v1Splits[i]) : 0;
+            int n2 = i < v2Splits.length ? parseIntSafe(v2Splits[i]) : 0;
+            int cmp = Integer.compare(n1, n2);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+
+        if (v1Rc != null && v2Rc != null) {
+            return Integer.compare(v1Rc, v2Rc);
+        } else if (v1Rc != null) {
+            return -1;
+        } else if (v2Rc != null) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int parseIntSafe(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+}
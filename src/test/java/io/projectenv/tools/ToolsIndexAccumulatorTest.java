@@ -0,0 +1,52 @@
+package io.projectenv.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolsIndexAccumulatorTest {
+
+    @Test
+    void testMatchesMergeIndexesInAnyOrder() {
+        ToolsIndexV2 toolsIndex = ToolIndexV2Parser.readFrom(new File("index-v2.json"));
+        List<ToolsIndexLeaf> leaves = ToolsIndexLeaves.flatten(toolsIndex);
+
+        // The previous index lacks some versions and has outdated URLs for others
+        List<ToolsIndexLeaf> previousLeaves = new ArrayList<>();
+        for (int i = 0; i < leaves.size(); i++) {
+            ToolsIndexLeaf leaf = leaves.get(i);
+            if (i % 7 == 0) {
+                previousLeaves.add(new ToolsIndexLeaf(leaf.key(), leaf.url() + ".outdated"));
+            } else if (i % 11 != 0) {
+                previousLeaves.add(leaf);
+            }
+        }
+        ToolsIndexV2 previousIndex = ToolsIndexLeaves.assemble(previousLeaves, toolsIndex.getJdkDistributionSynonyms());
+
+        // One result per tool, like the datasources deliver them
+        List<ToolsIndexV2> results = new ArrayList<>();
+        for (ToolType tool : ToolType.values()) {
+            results.add(ToolsIndexLeaves.assemble(leaves.stream().filter(leaf -> leaf.key().tool() == tool).toList(),
+                    tool == ToolType.JDK ? toolsIndex.getJdkDistributionSynonyms() : null));
+        }
+
+        List<ToolsIndexV2> mergeOrder = new ArrayList<>();
+        mergeOrder.add(previousIndex);
+        mergeOrder.addAll(results);
+        ToolsIndexV2 expected = GenerateToolsIndexMojo.mergeIndexes(mergeOrder);
+
+        Collections.shuffle(results, new Random(42));
+        ToolsIndexAccumulator accumulator = new ToolsIndexAccumulator();
+        accumulator.add(previousIndex);
+        results.parallelStream().forEach(accumulator::add);
+
+        assertThat(accumulator.freeze()).isEqualTo(expected);
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.projectenv.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolsIndexLeavesTest {
+
+    @Test
+    void testFlattenAndAssembleRoundTrip() {
+        ToolsIndexV2 toolsIndex = createToolsIndex("https://example.com/node-v20.0.0-linux-x64.tar.xz");
+
+        List<ToolsIndexLeaf> leaves = ToolsIndexLeaves.flatten(toolsIndex);
+
+        assertThat(leaves).hasSize(4);
+        assertThat(ToolsIndexLeaves.assemble(leaves, toolsIndex.getJdkDistributionSynonyms())).isEqualTo(toolsIndex);
+    }
+
+    @Test
+    void testChangedLeaves() {
+        ToolsIndexV2 previousIndex = createToolsIndex("https://example.com/node-v20.0.0-linux-x64.tar.gz");
+        ToolsIndexV2 nodeChangedIndex = createToolsIndex("https://example.com/node-v20.0.0-linux-x64.tar.xz");
+
+        SortedMap<String, String> gradleVersions = SortedCollections.createSemverSortedMap();
+        gradleVersions.putAll(nodeChangedIndex.getGradleVersions());
+        gradleVersions.put("8.1", "https://example.com/gradle-8.1-bin.zip");
+        ToolsIndexV2 currentIndex = ImmutableToolsIndexV2.builder()
+                .from(nodeChangedIndex)
+                .gradleVersions(gradleVersions)
+                .build();
+
+        assertThat(ToolsIndexLeaves.changedLeaves(previousIndex, currentIndex))
+                .extracting(ToolsIndexLeaf::url)
+                .containsExactly("https://example.com/gradle-8.1-bin.zip", "https://example.com/node-v20.0.0-linux-x64.tar.xz");
+        assertThat(ToolsIndexLeaves.changedLeaves(currentIndex, currentIndex)).isEmpty();
+    }
+
+    private ToolsIndexV2 createToolsIndex(String nodeUrl) {
+        SortedMap<String, SortedMap<OperatingSystem, SortedMap<CpuArchitecture, String>>> nodeVersions = SortedCollections.createSemverSortedMap();
+        nodeVersions.computeIfAbsent("20.0.0", k -> SortedCollections.createNaturallySortedMap())
+                .computeIfAbsent(OperatingSystem.LINUX, k -> SortedCollections.createNaturallySortedMap())
+                .put(CpuArchitecture.AMD64, nodeUrl);
+
+        SortedMap<String, SortedMap<OperatingSystem, String>> clojureVersions = SortedCollections.createSemverSortedMap();
+        clojureVersions.computeIfAbsent("1.12.0.1479", k -> SortedCollections.createNaturallySortedMap())
+                .put(OperatingSystem.LINUX, "https://example.com/clojure-tools-1.12.0.1479.tar.gz");
+        clojureVersions.get("1.12.0.1479").put(OperatingSystem.MACOS, "https://example.com/clojure-tools-1.12.0.1479.tar.gz");
+
+        SortedMap<String, String> gradleVersions = SortedCollections.createSemverSortedMap();
+        gradleVersions.put("8.0", "https://example.com/gradle-8.0-bin.zip");
+
+        return ImmutableToolsIndexV2.builder()
+                .jdkVersions(SortedCollections.createNaturallySortedMap())
+                .jdkDistributionSynonyms(SortedCollections.createNaturallySortedMap())
+                .gradleVersions(gradleVersions)
+                .mavenVersions(SortedCollections.createSemverSortedMap())
+                .mvndVersions(SortedCollections.createSemverSortedMap())
+                .nodeVersions(nodeVersions)
+                .clojureVersions(clojureVersions)
+                .build();
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.projectenv.tools;
+
+import com.sun.net.httpserver.HttpServer;
+import io.projectenv.tools.http.ResilientHttpClient;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolsIndexPipelineTest {
+
+    private final ResilientHttpClient httpClient = ResilientHttpClient.create(new SystemStreamLog());
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().startsWith("/missing") ? 404 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testMatchesPhasedValidation() throws Exception {
+        ToolsIndexLeaf existingLeaf = leaf(ToolType.GRADLE, "8.0", null, null, url("/gradle-8.0-bin.zip"));
+        ToolsIndexLeaf unchangedLeaf = leaf(ToolType.MAVEN, "3.9.9", null, null, url("/apache-maven-3.9.9-bin.zip"));
+        ToolsIndexLeaf brokenExistingLeaf = leaf(ToolType.NODE, "20.0.0", OperatingSystem.LINUX, CpuArchitecture.AMD64, url("/missing/node-v20.0.0-linux-x64.tar.xz"));
+        ToolsIndexLeaf newLeaf = leaf(ToolType.CLOJURE, "1.12.0.1479", OperatingSystem.MACOS, null, url("/clojure-tools-1.12.0.1479.tar.gz"));
+        ToolsIndexLeaf brokenNewLeaf = leaf(ToolType.NODE, "21.0.0", OperatingSystem.LINUX, CpuArchitecture.AMD64, url("/missing/node-v21.0.0-linux-x64.tar.xz"));
+        ToolsIndexLeaf changedLeaf = leaf(ToolType.GRADLE, "8.0", null, null, url("/gradle-8.0-all.zip"));
+
+        ToolsIndexV2 previousIndex = ToolsIndexLeaves.assemble(List.of(existingLeaf, unchangedLeaf, brokenExistingLeaf), null);
+        Map<String, ToolsIndexDatasource> datasources = Map.of(
+                "gradle", () -> ToolsIndexLeaves.assemble(List.of(changedLeaf), null),
+                "nodejs", () -> ToolsIndexLeaves.assemble(List.of(brokenExistingLeaf, brokenNewLeaf), null),
+                "clojure", () -> ToolsIndexLeaves.assemble(List.of(newLeaf), null));
+
+        for (boolean incremental : List.of(false, true)) {
+            ToolsIndexPipeline.Result result = new ToolsIndexPipeline(new DownloadUrlValidator(httpClient, UrlValidationCache.disabled(), new SystemStreamLog()), new SystemStreamLog())
+                    .run(datasources, previousIndex, incremental);
+
+            assertThat(ToolsIndexLeaves.flatten(result.toolsIndex()))
+                    .containsExactlyInAnyOrder(changedLeaf, unchangedLeaf, brokenExistingLeaf, newLeaf);
+            assertThat(result.validatedLeafCount()).isEqualTo(incremental ? 3 : 4);
+        }
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static ToolsIndexLeaf leaf(ToolType tool, String version, OperatingSystem operatingSystem, CpuArchitecture cpuArchitecture, String url) {
+        return new ToolsIndexLeaf(new ToolsIndexLeaf.Key(tool, null, version, operatingSystem, cpuArchitecture), url);
+    }
+
+}
@@ -0,0 +1,37 @@
+package io.projectenv.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolsIndexWriterTest {
+
+    @Test
+    void testSinglePassOutputMatchesParsers(@TempDir Path tempDir) throws IOException {
+        // Re-assembled to get the semver ordered maps the generator writes, the parser creates naturally ordered ones
+        ToolsIndexV2 parsedToolsIndex = ToolIndexV2Parser.readFrom(new File("index-v2.json"));
+        ToolsIndexV2 toolsIndex = ToolsIndexLeaves.assemble(ToolsIndexLeaves.flatten(parsedToolsIndex), parsedToolsIndex.getJdkDistributionSynonyms());
+
+        File expectedIndexFile = tempDir.resolve("expected-index-v2.json").toFile();
+        File expectedLegacyIndexFile = tempDir.resolve("expected-index.json").toFile();
+        ToolIndexV2Parser.writeTo(toolsIndex, expectedIndexFile);
+        ToolIndexParser.writeTo(toolsIndex.toLegacyToolsIndex(), expectedLegacyIndexFile);
+
+        File indexFile = tempDir.resolve("index-v2.json").toFile();
+        File legacyIndexFile = tempDir.resolve("index.json").toFile();
+        ToolsIndexWriter.writeTo(toolsIndex, indexFile, legacyIndexFile);
+
+        assertThat(indexFile).hasSameBinaryContentAs(expectedIndexFile);
+        assertThat(legacyIndexFile).hasSameBinaryContentAs(expectedLegacyIndexFile);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).hasSize(4);
+        }
+    }
+
+}
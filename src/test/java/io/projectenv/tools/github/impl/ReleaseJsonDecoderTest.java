@@ -0,0 +1,49 @@
+package io.projectenv.tools.github.impl;
+
+import com.google.gson.stream.JsonReader;
+import io.projectenv.tools.github.Release;
+import io.projectenv.tools.github.ReleaseAsset;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReleaseJsonDecoderTest {
+
+    private static final String RELEASES_JSON = """
+            [
+              {
+                "url": "https://api.github.com/repos/apache/maven-mvnd/releases/1",
+                "tag_name": "1.0.2",
+                "name": null,
+                "prerelease": true,
+                "author": {"login": "someone", "id": 1},
+                "assets": [
+                  {"name": "maven-mvnd-1.0.2-linux-amd64.zip", "uploader": {"login": "someone"}, "browser_download_url": "https://example.com/maven-mvnd-1.0.2-linux-amd64.zip"},
+                  {"name": "maven-mvnd-1.0.2-linux-amd64.zip.sha256", "browser_download_url": "https://example.com/maven-mvnd-1.0.2-linux-amd64.zip.sha256"}
+                ]
+              },
+              {
+                "tag_name": "1.0.1",
+                "assets": []
+              }
+            ]
+            """;
+
+    @Test
+    void testDecodeReleasesWithAssetFilter() throws IOException {
+        List<Release> releases = ReleaseJsonDecoder.decodeReleases(new JsonReader(new StringReader(RELEASES_JSON)),
+                assetName -> assetName.endsWith(".zip"));
+
+        assertThat(releases).extracting(Release::getTagName).containsExactly("1.0.2", "1.0.1");
+        assertThat(releases).extracting(Release::isPrerelease).containsExactly(true, false);
+        assertThat(releases.get(0).getAssets())
+                .extracting(ReleaseAsset::getBrowserDownloadUrl)
+                .containsExactly("https://example.com/maven-mvnd-1.0.2-linux-amd64.zip");
+        assertThat(releases.get(1).getAssets()).isEmpty();
+    }
+
+}
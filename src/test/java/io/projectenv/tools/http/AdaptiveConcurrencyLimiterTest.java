@@ -0,0 +1,68 @@
+package io.projectenv.tools.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void testLimitAdaptsToResponses() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter();
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        for (int request = 0; request < 100; request++) {
+            limiter.onSuccess(limiter.acquire(), Duration.ofMillis(10));
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+
+        int limitBeforeSlowResponse = limiter.getLimit();
+        limiter.onSuccess(limiter.acquire(), Duration.ofMillis(100));
+        assertThat(limiter.getLimit()).isLessThan(limitBeforeSlowResponse);
+
+        int limitBeforeOverload = limiter.getLimit();
+        limiter.onOverload(limiter.acquire(), null);
+        assertThat(limiter.getLimit()).isEqualTo(limitBeforeOverload / 2);
+    }
+
+    @Test
+    void testBurstOfOverloadResponsesDecreasesLimitOnce() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter();
+
+        List<Long> permits = new ArrayList<>();
+        for (int request = 0; request < 20; request++) {
+            permits.add(limiter.acquire());
+        }
+        for (long permit : permits) {
+            limiter.onOverload(permit, null);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        // Requests sent under the decreased limit are a new round
+        limiter.onOverload(limiter.acquire(), null);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void testRetryAfterPausesRequests() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter();
+
+        limiter.onOverload(limiter.acquire(), Duration.ofSeconds(10));
+
+        assertThat(limiter.getRemainingPause()).isGreaterThan(Duration.ofSeconds(5)).isLessThanOrEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testLimitsPause() throws InterruptedException {
+        var limiter = new AdaptiveConcurrencyLimiter();
+
+        limiter.onOverload(limiter.acquire(), Duration.ofSeconds(Long.MAX_VALUE));
+
+        assertThat(limiter.getRemainingPause()).isLessThanOrEqualTo(Duration.ofMinutes(15));
+    }
+
+}
@@ -0,0 +1,37 @@
+package io.projectenv.tools.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectoryListingFetcherTest {
+
+    @Test
+    void testParseLinks() throws Exception {
+        String listing = """
+                <html>
+                <head><title>Index of /dist/v20.0.0/</title></head>
+                <body>
+                <h1>Index of /dist/v20.0.0/</h1><hr><pre><a href="../">../</a>
+                <a href="node-v20.0.0-linux-x64.tar.xz">node-v20.0.0-linux-x64.tar.xz</a>                     18-Apr-2023 16:31     23M
+                <a href="/dist/v20.0.0/win-x64/"> win-x64/ </a>                                                 18-Apr-2023 16:31       -
+                <a name="anchor">no href</a>
+                </pre><hr></body>
+                </html>
+                """;
+
+        List<DirectoryListingFetcher.Link> links = DirectoryListingFetcher.parseLinks(
+                new ByteArrayInputStream(listing.getBytes(StandardCharsets.UTF_8)), "https://nodejs.org/dist/v20.0.0/");
+
+        assertThat(links).containsExactly(
+                new DirectoryListingFetcher.Link("../", "https://nodejs.org/dist/", "../"),
+                new DirectoryListingFetcher.Link("node-v20.0.0-linux-x64.tar.xz",
+                        "https://nodejs.org/dist/v20.0.0/node-v20.0.0-linux-x64.tar.xz", "node-v20.0.0-linux-x64.tar.xz"),
+                new DirectoryListingFetcher.Link("/dist/v20.0.0/win-x64/", "https://nodejs.org/dist/v20.0.0/win-x64/", "win-x64/"));
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.projectenv.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpMetricsTest {
+
+    private static final byte[] CONTENT = new byte[10_000];
+
+    private final ResilientHttpClient httpClient = ResilientHttpClient.create(new SystemStreamLog());
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/content", exchange -> {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(CONTENT);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testRecordsRequestsAndBytesPerHost() throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/content")).build();
+
+        httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        try (var body = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            body.readAllBytes();
+        }
+
+        assertThat(httpClient.getMetrics().snapshot()).hasEntrySatisfying("127.0.0.1", host -> {
+            assertThat(host.getRequests()).isEqualTo(2);
+            assertThat(host.getRetries()).isZero();
+            assertThat(host.getFailures()).isZero();
+            assertThat(host.getBytesReceived()).isEqualTo(2L * CONTENT.length);
+            assertThat(host.getLatencyMaxMillis()).isGreaterThanOrEqualTo(host.getLatencyP50Millis());
+        });
+    }
+
+}
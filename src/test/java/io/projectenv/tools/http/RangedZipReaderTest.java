@@ -0,0 +1,138 @@
+package io.projectenv.tools.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RangedZipReaderTest {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+    private static final String RELEASE_FILE = "JAVA_VERSION=\"21\"\nGRAALVM_VERSION=\"23.1.0\"\n";
+
+    private final AtomicLong bytesServed = new AtomicLong();
+    private byte[] archive;
+    private final ResilientHttpClient httpClient = ResilientHttpClient.create(new SystemStreamLog());
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        archive = createArchive();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ranged.zip", this::handleRanged);
+        server.createContext("/full.zip", exchange -> {
+            exchange.sendResponseHeaders(200, archive.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(archive);
+            } catch (IOException e) {
+                // the client closes the connection once it sees the status
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testReadsEntryWithRangeRequests() throws Exception {
+        var reader = new RangedZipReader(httpClient);
+
+        var content = reader.readEntry(url("/ranged.zip"), name -> name.endsWith("/release"));
+
+        assertThat(content).hasValueSatisfying(bytes ->
+                assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo(RELEASE_FILE));
+        assertThat(bytesServed.get()).isLessThan(archive.length / 4);
+        assertThat(reader.readEntry(url("/ranged.zip"), name -> name.endsWith("/missing"))).isEmpty();
+    }
+
+    @Test
+    void testFailsWithoutRangeSupport() {
+        var reader = new RangedZipReader(httpClient);
+
+        assertThatThrownBy(() -> reader.readEntry(url("/full.zip"), name -> name.endsWith("/release")))
+                .isInstanceOf(RangedZipReader.RangesNotSupportedException.class);
+    }
+
+    private void handleRanged(HttpExchange exchange) throws IOException {
+        Matcher matcher = RANGE_PATTERN.matcher(exchange.getRequestHeaders().getFirst("Range"));
+        if (!matcher.matches()) {
+            exchange.sendResponseHeaders(416, -1);
+            exchange.close();
+            return;
+        }
+
+        int start;
+        int end;
+        if (matcher.group(1).isEmpty()) {
+            start = Math.max(0, archive.length - Integer.parseInt(matcher.group(2)));
+            end = archive.length - 1;
+        } else {
+            start = Integer.parseInt(matcher.group(1));
+            end = matcher.group(2).isEmpty() ? archive.length - 1 : Math.min(archive.length - 1, Integer.parseInt(matcher.group(2)));
+        }
+
+        exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + archive.length);
+        exchange.sendResponseHeaders(206, end - start + 1);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(archive, start, end - start + 1);
+        }
+        bytesServed.addAndGet(end - start + 1);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Creates an archive with the release file in front of large incompressible entries,
+     * so that neither the release file nor the central directory are within the fetched tail.
+     */
+    private static byte[] createArchive() throws IOException {
+        Random random = new Random(42);
+        var buffer = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(buffer)) {
+            zip.putNextEntry(new ZipEntry("graalvm-community-openjdk-21/release"));
+            zip.write(RELEASE_FILE.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+
+            for (int i = 0; i < 4; i++) {
+                byte[] content = new byte[256 * 1024];
+                random.nextBytes(content);
+                zip.putNextEntry(new ZipEntry("graalvm-community-openjdk-21/lib/module" + i));
+                zip.write(content);
+                zip.closeEntry();
+            }
+
+            for (int i = 0; i < 2000; i++) {
+                zip.putNextEntry(new ZipEntry("graalvm-community-openjdk-21/legal/java.base/file" + i + ".md"));
+                zip.closeEntry();
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+}
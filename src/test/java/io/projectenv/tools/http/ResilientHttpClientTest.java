@@ -0,0 +1,92 @@
+package io.projectenv.tools.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilientHttpClientTest {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final ResilientHttpClient httpClient = ResilientHttpClient.create(new SystemStreamLog());
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rate-limited", exchange -> {
+            if (requestCount.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+            } else {
+                exchange.sendResponseHeaders(200, -1);
+            }
+            exchange.close();
+        });
+        server.createContext("/unavailable", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "3600");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.createContext("/forbidden", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.sendResponseHeaders(403, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testWaitsForRetryAfter() throws Exception {
+        long startNanos = System.nanoTime();
+        HttpResponse<Void> response = send("/rate-limited");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(requestCount).hasValue(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void testDoesNotWaitForRetryAfterAboveLimit() throws Exception {
+        HttpResponse<Void> response = send("/unavailable");
+
+        assertThat(response.statusCode()).isEqualTo(503);
+        assertThat(requestCount).hasValue(1);
+    }
+
+    @Test
+    void testDoesNotRetryForbiddenWithoutRateLimitHeaders() throws Exception {
+        HttpResponse<Void> response = send("/forbidden");
+
+        assertThat(response.statusCode()).isEqualTo(403);
+        assertThat(requestCount).hasValue(1);
+    }
+
+    private HttpResponse<Void> send(String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder()
+                .uri(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+}
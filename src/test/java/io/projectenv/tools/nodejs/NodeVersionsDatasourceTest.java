@@ -0,0 +1,45 @@
+package io.projectenv.tools.nodejs;
+
+import com.google.gson.stream.JsonReader;
+import io.projectenv.tools.CpuArchitecture;
+import io.projectenv.tools.OperatingSystem;
+import io.projectenv.tools.nodejs.NodeReleaseIndexDecoder.NodeRelease;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NodeVersionsDatasourceTest {
+
+    @Test
+    void testDeriveAssetsFromReleaseIndex() throws Exception {
+        String releaseIndex = """
+                [
+                  {"version":"v20.0.0","date":"2023-04-18","files":["headers","linux-arm64","linux-x64","osx-arm64-tar",
+                   "osx-x64-pkg","osx-x64-tar","win-x64-msi","win-x64-zip"],"npm":"9.6.4","lts":false,"security":false},
+                  {"version":"v4.0.0","date":"2015-09-08","files":["linux-x64","osx-x64-tar","win-x64-msi"],"lts":false}
+                ]
+                """;
+
+        List<NodeRelease> releases = NodeReleaseIndexDecoder.decodeReleases(new JsonReader(new StringReader(releaseIndex)));
+
+        assertThat(releases).extracting(NodeRelease::version).containsExactly("v20.0.0", "v4.0.0");
+        assertThat(NodeVersionsDatasource.deriveVersionAssets("20.0.0", releases.get(0).files())).isEqualTo(Map.of(
+                OperatingSystem.MACOS, Map.of(
+                        CpuArchitecture.AMD64, "https://nodejs.org/download/release/v20.0.0/node-v20.0.0-darwin-x64.tar.xz",
+                        CpuArchitecture.AARCH64, "https://nodejs.org/download/release/v20.0.0/node-v20.0.0-darwin-arm64.tar.xz"),
+                OperatingSystem.LINUX, Map.of(
+                        CpuArchitecture.AMD64, "https://nodejs.org/download/release/v20.0.0/node-v20.0.0-linux-x64.tar.xz",
+                        CpuArchitecture.AARCH64, "https://nodejs.org/download/release/v20.0.0/node-v20.0.0-linux-arm64.tar.xz"),
+                OperatingSystem.WINDOWS, Map.of(
+                        CpuArchitecture.AMD64, "https://nodejs.org/download/release/v20.0.0/node-v20.0.0-win-x64.zip")));
+        assertThat(NodeVersionsDatasource.deriveVersionAssets("4.0.0", releases.get(1).files()).keySet())
+                .containsExactly(OperatingSystem.MACOS, OperatingSystem.LINUX);
+        assertThat(NodeVersionsDatasource.deriveVersionAssets("4.0.0", Set.of("headers"))).isEmpty();
+    }
+
+}